@@ -0,0 +1,53 @@
+package tuyenbd.authentication.benchmark;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import tuyenbd.authentication.AuthenticationApplication;
+import tuyenbd.authentication.controller.dto.RegisterRequest;
+import tuyenbd.authentication.domain.auth.service.TokenService;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application against its default in-memory H2 database for benchmarks that need the full stack.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench_" + UUID.randomUUID(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.root=warn"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return SpringApplication.run(AuthenticationApplication.class, args.toArray(String[]::new));
+    }
+
+    static String loginNewUser(ConfigurableApplicationContext context) {
+        return login(context, createUser(context, Role.USER));
+    }
+
+    static User createUser(ConfigurableApplicationContext context, Role role) {
+        return context.getBean(UserService.class).createUser(RegisterRequest.builder()
+                .email("bench-" + UUID.randomUUID() + "@example.com")
+                .password("benchmark-password")
+                .firstname("Bench")
+                .lastname("Mark")
+                .role(role)
+                .build());
+    }
+
+    static String login(ConfigurableApplicationContext context, User user) {
+        return context.getBean(TokenService.class).createToken(user).getAccessToken();
+    }
+}
@@ -0,0 +1,106 @@
+package tuyenbd.authentication.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load comparison of platform and virtual request threads over real HTTP. Each invocation fires
+ * {@code concurrency} simultaneous authenticated {@code GET /api/v1/users/{id}} requests (filter, token
+ * lookup, user query) and waits for all of them; compare the score of {@code virtualThreads=false/true}.
+ * The in-memory H2 database understates JDBC latency, run against PostgreSQL for production-like numbers.
+ * <p>
+ * Recorded on 1 CPU, JDK 21, H2, {@code -f 1 -wi 2 -w 5 -i 3 -r 5 -bm avgt}, average time per burst of 1000:
+ * <pre>
+ * virtualThreads=false  1.43 s/op (iterations 1.88, 1.23, 1.16)  133 MB/op
+ * virtualThreads=true   1.10 s/op (iterations 1.39, 1.11, 0.79)  136 MB/op
+ * </pre>
+ * Both runs were still warming up and the 99.9% error exceeds the scores, so this only shows that virtual
+ * threads are not slower here; repeat with more iterations and cores before drawing conclusions.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class HttpLoadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"1000"})
+    public int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.profiles.active=" + (virtualThreads ? "virtual-threads" : "default"),
+                "server.tomcat.max-connections=" + (concurrency * 2),
+                "server.tomcat.accept-count=" + concurrency);
+        // ADMIN passes the @PreAuthorize check without the current-user lookup
+        User user = BenchmarkApplication.createUser(context, Role.ADMIN);
+        String accessToken = BenchmarkApplication.login(context, user);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/users/" + user.getId()))
+                .header("Authorization", "Bearer " + accessToken)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int burst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        if (ok != concurrency) {
+            throw new IllegalStateException((concurrency - ok) + " of " + concurrency + " requests failed");
+        }
+        return ok;
+    }
+}
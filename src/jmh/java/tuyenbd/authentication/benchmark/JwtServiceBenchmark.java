@@ -0,0 +1,63 @@
+package tuyenbd.authentication.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
+import tuyenbd.authentication.domain.auth.service.impl.HmacSigningKeyServiceImpl;
+import tuyenbd.authentication.domain.auth.service.impl.JwtServiceImpl;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+
+@State(Scope.Benchmark)
+@Fork(2)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtServiceBenchmark {
+
+    private JwtServiceImpl jwtService;
+    private User user;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtServiceImpl(new HmacSigningKeyServiceImpl(
+                "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970"));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 604800000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        user = User.builder().id(1L).email("bench@example.com").role(Role.USER).build();
+        accessToken = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(user);
+    }
+
+    @Benchmark
+    public JwtClaims parseAndVerify() {
+        return jwtService.parseAndVerify(accessToken);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(accessToken);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(accessToken, user);
+    }
+}
@@ -0,0 +1,92 @@
+package tuyenbd.authentication.benchmark;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tuyenbd.authentication.config.CacheConfig;
+import tuyenbd.authentication.config.JwtAuthenticationFilter;
+import tuyenbd.authentication.controller.dto.TokenRequest;
+import tuyenbd.authentication.controller.dto.TokenValidationResponse;
+import tuyenbd.authentication.domain.auth.service.TokenService;
+
+/**
+ * Measures the per-request authentication paths: the validate endpoint service call and the
+ * servlet filter. {@code cached=false} clears the token cache before every call so the H2 lookup
+ * is part of the measurement.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenValidationBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    private ConfigurableApplicationContext context;
+    private TokenService tokenService;
+    private JwtAuthenticationFilter filter;
+    private Cache tokenCache;
+    private TokenRequest tokenRequest;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain filterChain = (req, res) -> {
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("application.security.jwt.stateless-validation.enabled=" + stateless);
+        tokenService = context.getBean(TokenService.class);
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        tokenCache = context.getBean(CacheManager.class).getCache(CacheConfig.TOKEN_CACHE);
+
+        String accessToken = BenchmarkApplication.loginNewUser(context);
+        tokenRequest = new TokenRequest(accessToken);
+        request = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        request.addHeader("Authorization", "Bearer " + accessToken);
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TokenValidationResponse validateToken() {
+        if (!cached) {
+            tokenCache.clear();
+        }
+        return tokenService.validateToken(tokenRequest);
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        if (!cached) {
+            tokenCache.clear();
+        }
+        filter.doFilter(request, response, filterChain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        request.clearAttributes();
+        return authentication;
+    }
+}
@@ -0,0 +1,20 @@
+package tuyenbd.authentication.config;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sequence id whose block size is the {@value AllocatedSequenceGenerator#ALLOCATION_SIZE_SETTING} JPA property
+ * instead of a constant in each entity; one sequence call reserves a block of ids. The optimizer stays
+ * Hibernate's default pooled one and the sequence keeps the name Hibernate derives for a plain
+ * {@code @GeneratedValue}, so the mapping is unchanged apart from the configurable size.
+ */
+@IdGeneratorType(AllocatedSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface AllocatedSequence {
+}
@@ -4,26 +4,54 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
+    @Value("${application.security.password-hashing.algorithm}")
+    private String passwordHashingAlgorithm;
+    @Value("${application.security.password-hashing.target-latency}")
+    private Duration passwordHashingTargetLatency;
+    @Value("${application.security.password-hashing.calibrate}")
+    private boolean passwordHashingCalibrate;
+    @Value("${application.security.password-hashing.pool-size}")
+    private int passwordHashingPoolSize;
+    @Value("${application.security.password-hashing.queue-capacity}")
+    private int passwordHashingQueueCapacity;
+    @Value("${application.security.password-hashing.timeout}")
+    private Duration passwordHashingTimeout;
+
     @Bean
-    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService) {
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         UserDetailsPasswordService userDetailsPasswordService,
+                                                         PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // re-hashes outdated passwords after a successful login
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -33,8 +61,25 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        PasswordEncoder encoder = new CalibratedPasswordEncoderFactory()
+                .create(passwordHashingAlgorithm, passwordHashingTargetLatency, passwordHashingCalibrate);
+        return new BoundedPasswordEncoder(encoder, passwordHashingExecutor(meterRegistry), passwordHashingTimeout,
+                meterRegistry);
+    }
+
+    // not a bean on purpose, an Executor bean would replace Spring Boot's applicationTaskExecutor
+    private ExecutorService passwordHashingExecutor(MeterRegistry meterRegistry) {
+        int poolSize = passwordHashingPoolSize > 0
+                ? passwordHashingPoolSize
+                : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(passwordHashingQueueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // executor.queued, executor.active, ... tagged name=password.hashing
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+        return executor;
     }
 
     @Bean
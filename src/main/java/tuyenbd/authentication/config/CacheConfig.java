@@ -0,0 +1,74 @@
+package tuyenbd.authentication.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.TokenCacheKey;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TOKEN_CACHE = "token";
+    public static final String USER_ID_CACHE = "userIdByEmail";
+    public static final String UNKNOWN_TOKEN_CACHE = "unknownToken";
+    public static final String TOKEN_CACHE_KEY_GENERATOR = "tokenCacheKeyGenerator";
+
+    @Value("${application.cache.token.maximum-size}")
+    private long tokenCacheMaximumSize;
+    @Value("${application.cache.token.max-ttl}")
+    private Duration tokenCacheMaxTtl;
+    @Value("${application.cache.unknown-token.maximum-size}")
+    private long unknownTokenCacheMaximumSize;
+    @Value("${application.cache.unknown-token.ttl}")
+    private Duration unknownTokenCacheTtl;
+    @Value("${application.cache.user-id.maximum-size}")
+    private long userIdCacheMaximumSize;
+    @Value("${application.cache.user-id.ttl}")
+    private Duration userIdCacheTtl;
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> tokenCacheCustomizer() {
+        // stats are picked up by the actuator cache metrics (cache.gets, cache.evictions, ...)
+        return cacheManager -> cacheManager.registerCustomCache(TOKEN_CACHE, Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaximumSize)
+                .expireAfter(new TokenCacheExpiry(tokenCacheMaxTtl, unknownTokenCacheTtl))
+                .recordStats()
+                .build());
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> unknownTokenCacheCustomizer() {
+        // bounded, a client replaying random tokens only churns this cache
+        return cacheManager -> cacheManager.registerCustomCache(UNKNOWN_TOKEN_CACHE, Caffeine.newBuilder()
+                .maximumSize(unknownTokenCacheMaximumSize)
+                .expireAfterWrite(unknownTokenCacheTtl)
+                .recordStats()
+                .build());
+    }
+
+    /**
+     * Keys {@code (String jwt, TokenType tokenType)} methods without evaluating a SpEL expression per call.
+     */
+    @Bean(TOKEN_CACHE_KEY_GENERATOR)
+    public KeyGenerator tokenCacheKeyGenerator() {
+        return (target, method, params) -> new TokenCacheKey((String) params[0], (TokenType) params[1]);
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> userIdCacheCustomizer() {
+        return cacheManager -> cacheManager.registerCustomCache(USER_ID_CACHE, Caffeine.newBuilder()
+                .maximumSize(userIdCacheMaximumSize)
+                .expireAfterWrite(userIdCacheTtl)
+                .recordStats()
+                .build());
+    }
+}
@@ -0,0 +1,83 @@
+package tuyenbd.authentication.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Builds the delegating encoder with the work factor of the configured algorithm calibrated so one hash takes
+ * roughly the target latency on this machine. The minimum cost is the library default, so calibration never
+ * weakens hashing. Stored hashes with another algorithm or a lower cost are upgraded on the next login.
+ */
+@Slf4j
+class CalibratedPasswordEncoderFactory {
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+    static final String SCRYPT = "scrypt";
+    static final String PBKDF2 = "pbkdf2";
+
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private final Map<String, WorkFactor> workFactors = Map.of(
+            BCRYPT, new WorkFactor(10, 10, 16, true, BCryptPasswordEncoder::new),
+            ARGON2, new WorkFactor(2, 2, 20, false, iterations -> new Argon2PasswordEncoder(16, 32, 1, 1 << 14, iterations)),
+            SCRYPT, new WorkFactor(16, 16, 20, true, exponent -> new SCryptPasswordEncoder(1 << exponent, 8, 1, 32, 16)),
+            PBKDF2, new WorkFactor(310_000, 310_000, 10_000_000, false, iterations -> new Pbkdf2PasswordEncoder("", 16,
+                    iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256)));
+
+    PasswordEncoder create(String algorithm, Duration targetLatency, boolean calibrate) {
+        WorkFactor workFactor = workFactors.get(algorithm);
+        if (workFactor == null) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        }
+        int cost = calibrate ? calibrate(algorithm, workFactor, targetLatency) : workFactor.defaultCost();
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        workFactors.forEach((id, factor) -> encoders.put(id, factor.encoder().apply(factor.defaultCost())));
+        encoders.put(algorithm, workFactor.encoder().apply(cost));
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // hashes stored before the {id} prefix was introduced are plain BCrypt
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return delegatingEncoder;
+    }
+
+    private int calibrate(String algorithm, WorkFactor workFactor, Duration targetLatency) {
+        long measured = measureNanos(workFactor.encoder().apply(workFactor.defaultCost()));
+        double ratio = (double) targetLatency.toNanos() / measured;
+        long cost = workFactor.exponential()
+                ? workFactor.defaultCost() + Math.round(Math.log(ratio) / Math.log(2))
+                : Math.round(workFactor.defaultCost() * ratio);
+        int calibrated = (int) Math.max(workFactor.minCost(), Math.min(workFactor.maxCost(), cost));
+        log.info("Calibrated {} cost {} for target latency {} (cost {} took {} ms)", algorithm, calibrated,
+                targetLatency, workFactor.defaultCost(), Duration.ofNanos(measured).toMillis());
+        return calibrated;
+    }
+
+    long measureNanos(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Math.max(1, samples[SAMPLES / 2]);
+    }
+
+    private record WorkFactor(int defaultCost, int minCost, int maxCost, boolean exponential,
+                              IntFunction<PasswordEncoder> encoder) {
+    }
+}
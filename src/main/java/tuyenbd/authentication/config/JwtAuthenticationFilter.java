@@ -1,10 +1,12 @@
 package tuyenbd.authentication.config;
 
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -12,24 +14,64 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import tuyenbd.authentication.domain.auth.entity.Token;
 import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
+import tuyenbd.authentication.domain.auth.model.TokenPrincipal;
+import tuyenbd.authentication.domain.auth.service.JwtService;
+import tuyenbd.authentication.domain.auth.service.TokenEpochService;
+import tuyenbd.authentication.domain.auth.service.TokenRevocationService;
 import tuyenbd.authentication.domain.auth.service.TokenService;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
 import tuyenbd.authentication.exception.TokenNotFoundException;
 
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    static final String SKIPPED_METRIC = "jwt.filter.skipped";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    // stateless and thread safe, one instance serves every request
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
     private final TokenService tokenService;
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenEpochService tokenEpochService;
+    private final Counter skipped;
+
+    public JwtAuthenticationFilter(TokenService tokenService, JwtService jwtService,
+                                   TokenRevocationService tokenRevocationService,
+                                   TokenEpochService tokenEpochService, MeterRegistry meterRegistry) {
+        this.tokenService = tokenService;
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.tokenEpochService = tokenEpochService;
+        this.skipped = Counter.builder(SKIPPED_METRIC)
+                .description("Bearer tokens not resolved because the route is public")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!PublicEndpoints.MATCHER.matches(request)) {
+            return false;
+        }
+        // gateways often forward the header to public routes too, count the lookups that were avoided
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            skipped.increment();
+        }
+        return true;
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -41,8 +83,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     private void validateToken(HttpServletRequest request, String authHeader) {
-        String jwt = authHeader.substring(7);
-        Token token;
+        String jwt = authHeader.substring(BEARER_PREFIX.length());
+        if (tokenRevocationService.isEnabled() && !tokenRevocationService.mightBeRevoked(jwt)) {
+            JwtClaims claims;
+            try {
+                claims = jwtService.parseAndVerify(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                return;
+            }
+            // tokens issued before the claims were added still go through the tokens table
+            if (isStatelessAccessToken(claims)) {
+                if (tokenEpochService.isCurrent(claims.userId(), claims.tokenEpoch())) {
+                    authenticate(request, buildPrincipal(claims));
+                }
+                return;
+            }
+        }
+
+        TokenPrincipal token;
         try {
             token = tokenService.getToken(jwt, TokenType.ACCESS);
         } catch (TokenNotFoundException e) {
@@ -51,10 +109,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (!tokenService.isTokenValid(token)) {
             return;
         }
-        UserDetails userDetails = token.getUser();
-        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
+        authenticate(request, token);
+    }
+
+    private boolean isStatelessAccessToken(JwtClaims claims) {
+        return claims.tokenType() == TokenType.ACCESS && claims.userId() != null && claims.role() != null
+                && claims.tokenEpoch() != null;
+    }
+
+    private User buildPrincipal(JwtClaims claims) {
+        return User.builder()
+                .id(claims.userId())
+                .email(claims.subject())
+                .role(Role.valueOf(claims.role()))
+                .build();
+    }
+
+    private void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        UsernamePasswordAuthenticationToken authToken = UsernamePasswordAuthenticationToken.authenticated(userDetails,
                 null, userDetails.getAuthorities());
-        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        authToken.setDetails(detailsSource.buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authToken);
     }
-}
\ No newline at end of file
+}
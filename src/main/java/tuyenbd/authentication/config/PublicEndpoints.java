@@ -0,0 +1,26 @@
+package tuyenbd.authentication.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+/**
+ * Routes that are open without authentication. Used both to permit them in {@link SecurityConfiguration}
+ * and to skip token resolution for them in {@link JwtAuthenticationFilter}, so the two cannot drift apart.
+ */
+final class PublicEndpoints {
+
+    static final RequestMatcher MATCHER = new OrRequestMatcher(
+            // registration only, the other /api/v1/users routes need the caller's token
+            antMatcher(HttpMethod.POST, "/api/v1/users"),
+            antMatcher("/api/v1/auth/login"),
+            antMatcher("/api/v1/auth/token/**"),
+            antMatcher("/oauth2/**"),
+            antMatcher("/.well-known/jwks.json")
+    );
+
+    private PublicEndpoints() {
+    }
+}
@@ -0,0 +1,49 @@
+package tuyenbd.authentication.config;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.RequiredArgsConstructor;
+import tuyenbd.authentication.domain.auth.model.TokenPrincipal;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a cached {@link TokenPrincipal} no longer than its JWT {@code exp}, capped by {@code maxTtl}
+ * so status changes made by other instances are eventually picked up. Expired tokens stay for
+ * {@code expiredTtl}, so clients retrying them are answered without a query.
+ */
+@RequiredArgsConstructor
+class TokenCacheExpiry implements Expiry<Object, Object> {
+
+    private final Duration maxTtl;
+    private final Duration expiredTtl;
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return timeToLive(value);
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return timeToLive(value);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    private long timeToLive(Object value) {
+        if (!(value instanceof TokenPrincipal token)) {
+            return maxTtl.toNanos();
+        }
+        if (token.expiresAt() == null) {
+            return 0;
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(token.expiresAt().toEpochMilli() - System.currentTimeMillis());
+        if (remaining <= 0) {
+            return Math.min(expiredTtl.toNanos(), maxTtl.toNanos());
+        }
+        return Math.min(remaining, maxTtl.toNanos());
+    }
+}
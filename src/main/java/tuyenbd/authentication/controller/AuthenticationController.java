@@ -10,11 +10,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import tuyenbd.authentication.controller.dto.AuthenticationRequest;
 import tuyenbd.authentication.controller.dto.AuthenticationResponse;
+import tuyenbd.authentication.controller.dto.TokenBatchRequest;
 import tuyenbd.authentication.controller.dto.TokenRequest;
 import tuyenbd.authentication.controller.dto.TokenValidationResponse;
 import tuyenbd.authentication.domain.auth.service.AuthenticationService;
 import tuyenbd.authentication.domain.auth.service.TokenService;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -53,6 +56,13 @@ public class AuthenticationController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/token/validate/batch")
+    public ResponseEntity<List<TokenValidationResponse>> validateTokens(@RequestBody TokenBatchRequest request) {
+        log.info("Validating token batch");
+        List<TokenValidationResponse> response = tokenService.validateTokens(request.getTokens());
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/token/disable")
     public ResponseEntity<Void> disableToken(@RequestBody TokenRequest request) {
         log.info("Disabling token");
@@ -1,8 +1,13 @@
 package tuyenbd.authentication.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,14 +16,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tuyenbd.authentication.controller.dto.RegisterRequest;
+import tuyenbd.authentication.controller.dto.UserImportResponse;
+import tuyenbd.authentication.controller.dto.UserPage;
+import tuyenbd.authentication.controller.dto.UserSummary;
 import tuyenbd.authentication.controller.dto.UserUpdateRequest;
 import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.model.UserFilter;
+import tuyenbd.authentication.domain.user.service.UserImportService;
 import tuyenbd.authentication.domain.user.service.UserService;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 
 @Slf4j
 @RestController
@@ -26,15 +41,59 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
 
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        log.debug("Retrieving all users");
-        var users = userService.getAllUsers();
-        log.info("Retrieved {} users", users.size());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<UserPage> getUsers(UserFilter filter,
+                                             @RequestParam(required = false) Long after,
+                                             @RequestParam(required = false) Integer limit) {
+        log.debug("Retrieving users after id: {}", after);
+        var page = userService.getUsers(filter, after, limit);
+        log.info("Retrieved {} users", page.getItems().size());
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(UserFilter filter) {
+        log.info("Exporting users");
+        // one JSON document per line; the response stream is left open and flushed by the container
+        ObjectWriter writer = objectMapper.writerFor(UserSummary.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        StreamingResponseBody body = out -> userService.exportUsers(filter, user -> {
+            try {
+                writer.writeValue(out, user);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {CSV, NDJSON})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<UserImportResponse> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) throws IOException {
+        log.info("Importing users from {}", contentType);
+        var rows = MediaType.parseMediaType(CSV).isCompatibleWith(contentType)
+                ? UserImportReader.csv(body)
+                : UserImportReader.ndjson(body, objectMapper);
+        var result = userImportService.importUsers(rows);
+        log.info("Imported {} users, {} duplicates, {} invalid, {} failed", result.getCreated(),
+                result.getDuplicates(), result.getInvalid(), result.getFailed());
+        return ResponseEntity.ok(result);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,162 @@
+package tuyenbd.authentication.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import tuyenbd.authentication.controller.dto.RegisterRequest;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.model.UserImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a bulk import body line by line, so the whole upload is never held in memory. CSV needs a header line
+ * naming the columns (email, password, firstname, lastname, role, in any order); NDJSON has one
+ * {@link RegisterRequest} object per line. Lines that cannot be read become invalid rows, not errors.
+ */
+final class UserImportReader implements Iterator<UserImportRow> {
+
+    private static final List<String> CSV_COLUMNS = List.of("email", "password", "firstname", "lastname", "role");
+
+    private final BufferedReader reader;
+    private final LineParser parser;
+    private long lineNumber;
+    private UserImportRow next;
+
+    private UserImportReader(BufferedReader reader, LineParser parser, long lineNumber) {
+        this.reader = reader;
+        this.parser = parser;
+        this.lineNumber = lineNumber;
+    }
+
+    static UserImportReader ndjson(InputStream in, ObjectMapper objectMapper) {
+        ObjectReader objectReader = objectMapper.readerFor(RegisterRequest.class);
+        return new UserImportReader(open(in), (number, line) -> {
+            try {
+                return UserImportRow.of(number, objectReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                return UserImportRow.invalid(number, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }, 0);
+    }
+
+    static UserImportReader csv(InputStream in) throws IOException {
+        BufferedReader reader = open(in);
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header line is missing");
+        }
+        List<String> names = splitCsvLine(header).stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int[] positions = CSV_COLUMNS.stream().mapToInt(names::indexOf).toArray();
+        if (positions[0] < 0 || positions[1] < 0) {
+            throw new IllegalArgumentException("CSV header must name the email and password columns");
+        }
+        return new UserImportReader(reader, (number, line) -> parseCsvRow(number, line, positions), 1);
+    }
+
+    private static BufferedReader open(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    next = parser.parse(lineNumber, line);
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public UserImportRow next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        UserImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    private static UserImportRow parseCsvRow(long number, String line, int[] positions) {
+        List<String> fields;
+        try {
+            fields = splitCsvLine(line);
+        } catch (IllegalArgumentException e) {
+            return UserImportRow.invalid(number, e.getMessage());
+        }
+        Role role;
+        try {
+            String value = field(fields, positions[4]);
+            role = value == null || value.isBlank() ? null : Role.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return UserImportRow.invalid(number, "Unknown role");
+        }
+        return UserImportRow.of(number, RegisterRequest.builder()
+                .email(field(fields, positions[0]))
+                .password(field(fields, positions[1]))
+                .firstname(field(fields, positions[2]))
+                .lastname(field(fields, positions[3]))
+                .role(role)
+                .build());
+    }
+
+    private static String field(List<String> fields, int position) {
+        return position < 0 || position >= fields.size() ? null : fields.get(position);
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        UserImportRow parse(long lineNumber, String line);
+    }
+}
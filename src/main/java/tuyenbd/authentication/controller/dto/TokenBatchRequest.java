@@ -0,0 +1,16 @@
+package tuyenbd.authentication.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenBatchRequest {
+    private List<String> tokens;
+}
@@ -0,0 +1,21 @@
+package tuyenbd.authentication.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResponse {
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private int rejected;
+    private int failed;
+    private List<UserImportRowResult> rows;
+}
@@ -0,0 +1,19 @@
+package tuyenbd.authentication.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import tuyenbd.authentication.domain.user.enums.UserImportStatus;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportRowResult {
+    private long line;
+    private String email;
+    private UserImportStatus status;
+    private Long id;
+    private String message;
+}
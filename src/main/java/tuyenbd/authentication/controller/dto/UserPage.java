@@ -0,0 +1,18 @@
+package tuyenbd.authentication.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPage {
+    private List<UserSummary> items;
+    // pass as "after" to read the next page, null on the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,24 @@
+package tuyenbd.authentication.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSummary {
+    private Long id;
+    private String firstname;
+    private String lastname;
+    private String email;
+    private Role role;
+    private UserStatus status;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package tuyenbd.authentication.domain.auth.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "signing_keys")
+public class SigningKey {
+    @Id
+    private String kid;
+
+    private String algorithm;
+
+    @Column(length = 1024)
+    private byte[] publicKey;
+
+    // AES-GCM encrypted with the configured key encryption key, never stored in the clear
+    @Column(length = 2048)
+    private byte[] privateKey;
+
+    // createdAt epoch millis / rotation interval; unique, so only one instance wins each rotation
+    @Column(unique = true)
+    private Long rotationSlot;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -6,8 +6,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.UpdateTimestamp;
+import tuyenbd.authentication.config.AllocatedSequence;
 import tuyenbd.authentication.domain.auth.enums.TokenStatus;
 import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.TokenDigest;
 import tuyenbd.authentication.domain.user.entity.User;
 
 import java.time.LocalDateTime;
@@ -17,14 +19,24 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tokens")
+@Table(name = "tokens", indexes = {
+        @Index(name = "idx_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_tokens_user_id_status", columnList = "user_id, status"),
+        @Index(name = "idx_tokens_created_at", columnList = "created_at"),
+        @Index(name = "idx_tokens_status_updated_at", columnList = "status, updated_at")
+})
 public class Token {
     @Id
-    @GeneratedValue
+    @AllocatedSequence
     private Long id;
 
+    // only stored, lookups go through token_hash
+    @Column(length = 2048)
     private String token;
 
+    @Column(name = "token_hash", length = TokenDigest.LENGTH)
+    private String tokenHash;
+
     @Enumerated(EnumType.STRING)
     private TokenType tokenType;
 
@@ -32,7 +44,11 @@ public class Token {
     @Enumerated(EnumType.STRING)
     private TokenStatus status = TokenStatus.ACTIVE;
 
-    @ManyToOne
+    // user epoch at issue time, null for tokens issued before epochs existed
+    private Long tokenEpoch;
+
+    // lookups go through TokenPrincipal, the user is only needed when a token is written
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -40,4 +56,11 @@ public class Token {
     private LocalDateTime createdAt = LocalDateTime.now();
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    void computeTokenHash() {
+        if (tokenHash == null && token != null) {
+            tokenHash = TokenDigest.of(token);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package tuyenbd.authentication.domain.auth.model;
+
+import io.jsonwebtoken.Claims;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.service.JwtService;
+
+import java.time.Instant;
+
+/**
+ * Read-only view over the claims of a JWT whose signature and expiry have already been verified.
+ */
+public final class JwtClaims {
+
+    private final Claims claims;
+
+    public JwtClaims(Claims claims) {
+        this.claims = claims;
+    }
+
+    public String subject() {
+        return claims.getSubject();
+    }
+
+    public Instant issuedAt() {
+        return claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant();
+    }
+
+    public Instant expiration() {
+        return claims.getExpiration() == null ? null : claims.getExpiration().toInstant();
+    }
+
+    public Long userId() {
+        return claims.get(JwtService.USER_ID_CLAIM, Long.class);
+    }
+
+    public String role() {
+        return claims.get(JwtService.ROLE_CLAIM, String.class);
+    }
+
+    public TokenType tokenType() {
+        String type = claims.get(JwtService.TOKEN_TYPE_CLAIM, String.class);
+        return type == null ? null : TokenType.valueOf(type);
+    }
+
+    public Long tokenEpoch() {
+        return claims.get(JwtService.TOKEN_EPOCH_CLAIM, Long.class);
+    }
+
+    public <T> T get(String name, Class<T> requiredType) {
+        return claims.get(name, requiredType);
+    }
+}
@@ -0,0 +1,11 @@
+package tuyenbd.authentication.domain.auth.model;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.security.Key;
+
+/**
+ * Key used to sign newly issued tokens. {@code kid} is written to the JWT header when present.
+ */
+public record JwtSigningKey(String kid, Key key, SignatureAlgorithm algorithm) {
+}
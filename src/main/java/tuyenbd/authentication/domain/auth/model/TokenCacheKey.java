@@ -0,0 +1,10 @@
+package tuyenbd.authentication.domain.auth.model;
+
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+
+/**
+ * Key of the token cache. Unlike {@code jwt + tokenType} it does not copy the JWT, and it hashes with the
+ * JWT's cached {@link String#hashCode()}.
+ */
+public record TokenCacheKey(String jwt, TokenType tokenType) {
+}
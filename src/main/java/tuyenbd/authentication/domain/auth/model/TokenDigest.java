@@ -0,0 +1,27 @@
+package tuyenbd.authentication.domain.auth.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Fixed-width SHA-256 digest of a raw JWT, used as the indexed lookup key of the tokens table.
+ */
+public final class TokenDigest {
+
+    public static final int LENGTH = 64;
+
+    private TokenDigest() {
+    }
+
+    public static String of(String jwt) {
+        try {
+            // MessageDigest instances are not thread safe, getInstance is cheap compared to the hash itself
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package tuyenbd.authentication.domain.auth.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import tuyenbd.authentication.domain.auth.entity.Token;
+import tuyenbd.authentication.domain.auth.enums.TokenStatus;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Immutable view of a stored token and its owner, loaded with one projection query. It is what the token cache
+ * holds and what {@code JwtAuthenticationFilter} authenticates requests with, so it carries no password hash,
+ * JWT string or entity state.
+ *
+ * @param expiresAt       JWT {@code exp}, read once when the token is loaded
+ * @param cacheGeneration generation read before the token was loaded, see {@code TokenGenerationService}
+ */
+public record TokenPrincipal(String tokenHash, TokenType tokenType, TokenStatus status, Long tokenEpoch,
+                             Instant expiresAt, Long userId, String email, Role role, UserStatus userStatus,
+                             long cacheGeneration) implements UserDetails {
+
+    /**
+     * Projection constructor used by {@code TokenRepository}.
+     */
+    public TokenPrincipal(String tokenHash, TokenType tokenType, TokenStatus status, Long tokenEpoch, Long userId,
+                          String email, Role role, UserStatus userStatus) {
+        this(tokenHash, tokenType, status, tokenEpoch, null, userId, email, role, userStatus, 0);
+    }
+
+    /**
+     * Principal of a token that is not loaded from the database, e.g. one still queued for write-behind.
+     */
+    public static TokenPrincipal of(Token token) {
+        User user = token.getUser();
+        return new TokenPrincipal(token.getTokenHash(), token.getTokenType(), token.getStatus(),
+                token.getTokenEpoch(), user.getId(), user.getEmail(), user.getRole(), user.getStatus());
+    }
+
+    public TokenPrincipal withExpiresAt(Instant expiresAt) {
+        return new TokenPrincipal(tokenHash, tokenType, status, tokenEpoch, expiresAt, userId, email, role,
+                userStatus, cacheGeneration);
+    }
+
+    public TokenPrincipal withCacheGeneration(long cacheGeneration) {
+        return new TokenPrincipal(tokenHash, tokenType, status, tokenEpoch, expiresAt, userId, email, role,
+                userStatus, cacheGeneration);
+    }
+
+    public boolean isExpired() {
+        return expiresAt == null || !expiresAt.isAfter(Instant.now());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return userStatus == UserStatus.ACTIVE;
+    }
+}
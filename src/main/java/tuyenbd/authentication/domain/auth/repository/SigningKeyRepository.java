@@ -0,0 +1,12 @@
+package tuyenbd.authentication.domain.auth.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import tuyenbd.authentication.domain.auth.entity.SigningKey;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    List<SigningKey> findAllByAlgorithmAndCreatedAtAfterOrderByCreatedAtDesc(String algorithm, LocalDateTime createdAt);
+}
@@ -1,20 +1,64 @@
 package tuyenbd.authentication.domain.auth.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import tuyenbd.authentication.domain.auth.entity.Token;
+import tuyenbd.authentication.domain.auth.enums.TokenStatus;
 import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.TokenPrincipal;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
 
-    @Query(value = "select * from tokens t where t.user_id = :userId and t.status = 'ACTIVE'", nativeQuery = true)
-    List<Token> findAllActiveTokensByUser(@Param("userId") Long userId);
+    String PRINCIPAL_SELECT = "select new tuyenbd.authentication.domain.auth.model.TokenPrincipal("
+            + "t.tokenHash, t.tokenType, t.status, t.tokenEpoch, u.id, u.email, u.role, u.status)"
+            + " from Token t join t.user u";
 
-    Optional<Token> findByToken(String token);
+    @Modifying
+    @Query("update Token t set t.status = :newStatus, t.updatedAt = :updatedAt"
+            + " where t.user.id = :userId and t.status = :currentStatus")
+    int updateStatusByUser(@Param("userId") Long userId,
+                           @Param("currentStatus") TokenStatus currentStatus,
+                           @Param("newStatus") TokenStatus newStatus,
+                           @Param("updatedAt") LocalDateTime updatedAt);
 
-    Optional<Token> findByTokenAndTokenType(String jwt, TokenType tokenType);
+    @Modifying
+    @Query("update Token t set t.status = :newStatus, t.updatedAt = :updatedAt where t.tokenHash = :tokenHash")
+    int updateStatusByTokenHash(@Param("tokenHash") String tokenHash,
+                                @Param("newStatus") TokenStatus newStatus,
+                                @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query(PRINCIPAL_SELECT + " where t.tokenHash = :tokenHash and t.tokenType = :tokenType")
+    Optional<TokenPrincipal> findPrincipalByTokenHashAndTokenType(@Param("tokenHash") String tokenHash,
+                                                                  @Param("tokenType") TokenType tokenType);
+
+    @Query(PRINCIPAL_SELECT + " where t.tokenHash in :tokenHashes and t.tokenType = :tokenType")
+    List<TokenPrincipal> findPrincipalsByTokenHashInAndTokenType(@Param("tokenHashes") Collection<String> tokenHashes,
+                                                                 @Param("tokenType") TokenType tokenType);
+
+    long countByStatusAndTokenType(TokenStatus status, TokenType tokenType);
+
+    @Query("select t.id from Token t where t.tokenType = :tokenType and t.createdAt < :createdBefore")
+    List<Long> findIdsByTokenTypeAndCreatedAtBefore(@Param("tokenType") TokenType tokenType,
+                                                    @Param("createdBefore") LocalDateTime createdBefore,
+                                                    Pageable pageable);
+
+    @Query("select t.id from Token t where t.status = :status and t.tokenType in :tokenTypes"
+            + " and t.updatedAt < :updatedBefore")
+    List<Long> findIdsByStatusAndTokenTypeInAndUpdatedAtBefore(@Param("status") TokenStatus status,
+                                                                @Param("tokenTypes") Collection<TokenType> tokenTypes,
+                                                                @Param("updatedBefore") LocalDateTime updatedBefore,
+                                                                Pageable pageable);
+
+    @Query("select t.token from Token t where t.status = :status and t.tokenType = :tokenType")
+    Stream<String> streamTokensByStatusAndType(@Param("status") TokenStatus status,
+                                               @Param("tokenType") TokenType tokenType);
 }
\ No newline at end of file
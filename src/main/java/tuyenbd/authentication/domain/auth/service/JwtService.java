@@ -2,11 +2,17 @@ package tuyenbd.authentication.domain.auth.service;
 
 import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetails;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
 
 import java.util.Map;
 import java.util.function.Function;
 
 public interface JwtService {
+    String USER_ID_CLAIM = "uid";
+    String ROLE_CLAIM = "role";
+    String TOKEN_TYPE_CLAIM = "type";
+    String TOKEN_EPOCH_CLAIM = "epoch";
+
     String extractUsername(String token);
 
     <T> T extractClaim(String token, Function<Claims, T> claimsResolver);
@@ -18,4 +24,6 @@ public interface JwtService {
     String generateRefreshToken(UserDetails userDetails);
 
     boolean isTokenValid(String token, UserDetails userDetails);
+
+    JwtClaims parseAndVerify(String token);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package tuyenbd.authentication.domain.auth.service;
+
+import tuyenbd.authentication.domain.auth.model.JwtSigningKey;
+
+import java.security.Key;
+
+public interface SigningKeyService {
+
+    JwtSigningKey signingKey();
+
+    Key verificationKey(String kid);
+
+    String jwks();
+}
@@ -0,0 +1,16 @@
+package tuyenbd.authentication.domain.auth.service;
+
+import tuyenbd.authentication.domain.user.entity.User;
+
+public interface TokenEpochService {
+
+    boolean isCurrent(Long userId, Long tokenEpoch);
+
+    long advance(User user);
+
+    /**
+     * Advances the epoch only while the user's row is still ACTIVE, so a login answered from stale cached
+     * credentials cannot issue tokens for a user deactivated on another instance.
+     */
+    long advanceIfActive(User user);
+}
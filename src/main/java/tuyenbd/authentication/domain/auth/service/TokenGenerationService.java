@@ -0,0 +1,10 @@
+package tuyenbd.authentication.domain.auth.service;
+
+public interface TokenGenerationService {
+
+    long currentGeneration();
+
+    boolean isStale(Long userId, long generation);
+
+    void advanceGeneration(Long userId);
+}
@@ -0,0 +1,6 @@
+package tuyenbd.authentication.domain.auth.service;
+
+public interface TokenPartitionService {
+
+    void maintainPartitions();
+}
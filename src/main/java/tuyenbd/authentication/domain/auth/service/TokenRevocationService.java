@@ -0,0 +1,12 @@
+package tuyenbd.authentication.domain.auth.service;
+
+public interface TokenRevocationService {
+
+    boolean isEnabled();
+
+    boolean mightBeRevoked(String jwt);
+
+    void markRevoked(String jwt);
+
+    void rebuild();
+}
@@ -3,13 +3,15 @@ package tuyenbd.authentication.domain.auth.service;
 import tuyenbd.authentication.controller.dto.AuthenticationResponse;
 import tuyenbd.authentication.controller.dto.TokenRequest;
 import tuyenbd.authentication.controller.dto.TokenValidationResponse;
-import tuyenbd.authentication.domain.auth.entity.Token;
 import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.TokenPrincipal;
 import tuyenbd.authentication.domain.user.entity.User;
 
+import java.util.List;
+
 public interface TokenService {
 
-    Token getToken(String jwt, TokenType tokenType);
+    TokenPrincipal getToken(String jwt, TokenType tokenType);
 
     AuthenticationResponse createToken(User user);
 
@@ -19,7 +21,9 @@ public interface TokenService {
 
     TokenValidationResponse validateToken(TokenRequest request);
 
-    boolean isTokenValid(Token token);
+    List<TokenValidationResponse> validateTokens(List<String> jwts);
+
+    boolean isTokenValid(TokenPrincipal token);
 
     void disableTokenRequest(TokenRequest request);
 
@@ -0,0 +1,16 @@
+package tuyenbd.authentication.domain.auth.service;
+
+import tuyenbd.authentication.domain.auth.entity.Token;
+
+import java.util.Optional;
+
+public interface TokenWriteBehindService {
+
+    boolean isEnabled();
+
+    void write(Token token);
+
+    Optional<Token> findPending(String tokenHash);
+
+    void flush();
+}
@@ -4,7 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tuyenbd.authentication.controller.dto.AuthenticationRequest;
@@ -29,8 +29,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     public AuthenticationResponse login(AuthenticationRequest request) {
         log.info("Login attempt for user: {}", request.getEmail());
         validateRequest(request);
-        authenticateCredentials(request.getEmail(), request.getPassword());
-        User user = userService.getUserByEmail(request.getEmail());
+        Authentication authentication = authenticateCredentials(request.getEmail(), request.getPassword());
+        // UserDetailsServiceImpl already loaded the credentials projection, reuse it instead of a second query
+        User user = authentication != null && authentication.getPrincipal() instanceof User principal
+                ? principal
+                : userService.getUserByEmail(request.getEmail());
         log.info("User {} successfully authenticated", request.getEmail());
 
         return tokenService.createToken(user);
@@ -59,8 +62,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
     }
 
-    private void authenticateCredentials(String email, String password) {
-        authenticationManager.authenticate(
+    private Authentication authenticateCredentials(String email, String password) {
+        return authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, password)
         );
     }
@@ -0,0 +1,81 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
+import tuyenbd.authentication.domain.auth.service.JwtService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the signatures of a token batch in parallel on a bounded pool of its own. The work is CPU only, so
+ * the pool is sized to the cores and never touches the database; when its queue is full the caller verifies
+ * its share itself instead of waiting.
+ */
+@Component
+class BatchJwtVerifier implements DisposableBean {
+
+    // below this many tokens per task, handing work to another thread costs more than it saves
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    private final JwtService jwtService;
+    private final ThreadPoolExecutor executor;
+
+    BatchJwtVerifier(JwtService jwtService, MeterRegistry meterRegistry,
+                     @Value("${application.security.jwt.validation.verify-parallelism}") int parallelism) {
+        this.jwtService = jwtService;
+        int poolSize = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 4), new CustomizableThreadFactory("jwt-verify-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // executor.queued, executor.active, ... tagged name=jwt.verify
+        new ExecutorServiceMetrics(executor, "jwt.verify", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Returns the claims of every token whose signature and expiry verify, keyed by the token; tokens that do
+     * not verify are left out.
+     */
+    Map<String, JwtClaims> verifyAll(List<String> jwts) {
+        Map<String, JwtClaims> verified = new ConcurrentHashMap<>();
+        int chunks = Math.max(1, Math.min(executor.getMaximumPoolSize(), jwts.size() / MIN_CHUNK_SIZE));
+        int chunkSize = (jwts.size() + chunks - 1) / chunks;
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(chunks);
+        // the first chunk runs on the calling thread, which would otherwise only wait
+        for (int from = chunkSize; from < jwts.size(); from += chunkSize) {
+            List<String> chunk = jwts.subList(from, Math.min(from + chunkSize, jwts.size()));
+            tasks.add(CompletableFuture.runAsync(() -> verify(chunk, verified), executor));
+        }
+        verify(jwts.subList(0, Math.min(chunkSize, jwts.size())), verified);
+        tasks.forEach(CompletableFuture::join);
+        return verified;
+    }
+
+    private void verify(List<String> jwts, Map<String, JwtClaims> verified) {
+        for (String jwt : jwts) {
+            try {
+                verified.put(jwt, jwtService.parseAndVerify(jwt));
+            } catch (JwtException | IllegalArgumentException e) {
+                // expired, forged or malformed, the caller answers it as invalid
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
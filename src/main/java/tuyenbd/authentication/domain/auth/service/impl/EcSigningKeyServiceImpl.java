@@ -0,0 +1,253 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tuyenbd.authentication.domain.auth.entity.SigningKey;
+import tuyenbd.authentication.domain.auth.model.JwtSigningKey;
+import tuyenbd.authentication.domain.auth.repository.SigningKeyRepository;
+import tuyenbd.authentication.domain.auth.service.SigningKeyService;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ES256 key ring shared by all instances through the {@code signing_keys} table. A new key is published in the
+ * JWKS first and only signs once it has been published for longer than the JWKS max-age, so verifiers holding a
+ * cached JWKS already know it; older keys stay available for verification (and in the JWKS) until every token
+ * they signed has expired.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application.security.jwt.signing.algorithm", havingValue = "ES256")
+public class EcSigningKeyServiceImpl implements SigningKeyService {
+
+    private static final String ALGORITHM = SignatureAlgorithm.ES256.getValue();
+    private static final String CURVE = "secp256r1";
+    private static final int COORDINATE_LENGTH = 32;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${application.security.jwt.signing.rotation-interval}")
+    private Duration rotationInterval;
+    @Value("${application.security.jwt.signing.reload-interval}")
+    private Duration reloadInterval;
+    @Value("${application.security.jwt.signing.min-reload-interval}")
+    private Duration minReloadInterval;
+    @Value("${application.security.jwt.refresh-token.expiration}")
+    private long refreshExpiration;
+    @Value("${application.security.jwt.signing.jwks-max-age}")
+    private Duration jwksMaxAge;
+    @Value("${application.security.jwt.signing.key-encryption-key}")
+    private String keyEncryptionKey;
+
+    private SigningKeyCipher cipher;
+
+    private final ReentrantLock rotationLock = new ReentrantLock();
+    private final AtomicLong lastReload = new AtomicLong();
+    private volatile KeyRing keyRing;
+
+    @PostConstruct
+    void init() {
+        cipher = SigningKeyCipher.of(keyEncryptionKey);
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.jwt.signing.reload-interval}",
+            initialDelayString = "${application.security.jwt.signing.reload-interval}")
+    public void refresh() {
+        reload();
+        SigningKey newest = keyRing.newest();
+        if (newest == null || newest.getCreatedAt().isBefore(LocalDateTime.now().minus(rotationInterval))) {
+            rotate();
+        }
+    }
+
+    /**
+     * The local lock serializes rotations within this instance; across instances the unique rotation slot
+     * lets exactly one insert win, the others pick up the winner's key on reload.
+     */
+    public void rotate() {
+        rotationLock.lock();
+        try {
+            KeyPair keyPair = generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+            long slot = System.currentTimeMillis() / rotationInterval.toMillis();
+            SigningKey signingKey = SigningKey.builder()
+                    .kid(kid)
+                    .algorithm(ALGORITHM)
+                    .publicKey(keyPair.getPublic().getEncoded())
+                    .privateKey(cipher.encrypt(kid, keyPair.getPrivate().getEncoded()))
+                    .rotationSlot(slot)
+                    .build();
+            try {
+                signingKeyRepository.saveAndFlush(signingKey);
+                log.info("Rotated signing key, new kid {}", kid);
+            } catch (DataIntegrityViolationException e) {
+                log.info("Signing key rotation slot {} already taken by another instance", slot);
+            }
+            reload();
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    @Override
+    public JwtSigningKey signingKey() {
+        return keyRing.active();
+    }
+
+    @Override
+    public Key verificationKey(String kid) {
+        PublicKey key = kid == null ? null : keyRing.publicKeys().get(kid);
+        if (key == null && kid != null && reloadAllowed()) {
+            // another instance may have rotated since our last reload
+            reload();
+            key = keyRing.publicKeys().get(kid);
+        }
+        if (key == null) {
+            throw new SignatureException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    @Override
+    public String jwks() {
+        return keyRing.jwks();
+    }
+
+    private boolean reloadAllowed() {
+        long now = System.currentTimeMillis();
+        long last = lastReload.get();
+        return now - last >= minReloadInterval.toMillis() && lastReload.compareAndSet(last, now);
+    }
+
+    private void reload() {
+        // a key signs for one rotation interval plus the wait (and the reload) until its successor activates,
+        // the tokens it signed live for at most the refresh expiration
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now
+                .minus(rotationInterval)
+                .minus(jwksMaxAge)
+                .minus(reloadInterval)
+                .minus(Duration.ofMillis(refreshExpiration));
+        List<SigningKey> keys = signingKeyRepository
+                .findAllByAlgorithmAndCreatedAtAfterOrderByCreatedAtDesc(ALGORITHM, cutoff);
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (SigningKey key : keys) {
+            PublicKey publicKey = decodePublicKey(key.getPublicKey());
+            publicKeys.put(key.getKid(), publicKey);
+            jwks.add(toJwk(key.getKid(), (ECPublicKey) publicKey));
+        }
+        SigningKey newest = keys.isEmpty() ? null : keys.get(0);
+        SigningKey signing = selectSigningKey(keys, now.minus(jwksMaxAge));
+        JwtSigningKey active = signing == null ? null
+                : new JwtSigningKey(signing.getKid(),
+                        decodePrivateKey(cipher.decrypt(signing.getKid(), signing.getPrivateKey())),
+                        SignatureAlgorithm.ES256);
+        keyRing = new KeyRing(newest, active, Map.copyOf(publicKeys), serialize(jwks));
+        lastReload.set(System.currentTimeMillis());
+    }
+
+    /**
+     * The newest key published before {@code publishedBefore}; younger keys are only in the JWKS so far. Without
+     * such a key (the very first one) the oldest key signs, no verifier can have cached a JWKS without it.
+     */
+    private static SigningKey selectSigningKey(List<SigningKey> keysNewestFirst, LocalDateTime publishedBefore) {
+        for (SigningKey key : keysNewestFirst) {
+            if (!key.getCreatedAt().isAfter(publishedBefore)) {
+                return key;
+            }
+        }
+        return keysNewestFirst.isEmpty() ? null : keysNewestFirst.get(keysNewestFirst.size() - 1);
+    }
+
+    private Map<String, Object> toJwk(String kid, ECPublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("kid", kid);
+        jwk.put("x", base64Url(publicKey.getW().getAffineX()));
+        jwk.put("y", base64Url(publicKey.getW().getAffineY()));
+        return jwk;
+    }
+
+    private String serialize(List<Map<String, Object>> jwks) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("keys", jwks));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize JWKS", e);
+        }
+    }
+
+    private static String base64Url(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        byte[] padded = new byte[COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, padded, COORDINATE_LENGTH - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(padded);
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec(CURVE));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate EC key pair", e);
+        }
+    }
+
+    private static PublicKey decodePublicKey(byte[] encoded) {
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decode EC public key", e);
+        }
+    }
+
+    private static Key decodePrivateKey(byte[] encoded) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decode EC private key", e);
+        }
+    }
+
+    private record KeyRing(SigningKey newest, JwtSigningKey active, Map<String, PublicKey> publicKeys, String jwks) {
+    }
+}
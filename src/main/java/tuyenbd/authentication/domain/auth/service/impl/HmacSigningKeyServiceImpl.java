@@ -0,0 +1,45 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import tuyenbd.authentication.domain.auth.model.JwtSigningKey;
+import tuyenbd.authentication.domain.auth.service.SigningKeyService;
+
+import java.security.Key;
+
+/**
+ * HS256 with the shared {@code secret-key}. Nothing is published in the JWKS since the key is symmetric.
+ */
+@Service
+@ConditionalOnProperty(name = "application.security.jwt.signing.algorithm", havingValue = "HS256",
+        matchIfMissing = true)
+public class HmacSigningKeyServiceImpl implements SigningKeyService {
+
+    private static final String EMPTY_JWKS = "{\"keys\":[]}";
+
+    private final JwtSigningKey signingKey;
+
+    public HmacSigningKeyServiceImpl(@Value("${application.security.jwt.secret-key}") String secretKey) {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signingKey = new JwtSigningKey(null, Keys.hmacShaKeyFor(keyBytes), SignatureAlgorithm.HS256);
+    }
+
+    @Override
+    public JwtSigningKey signingKey() {
+        return signingKey;
+    }
+
+    @Override
+    public Key verificationKey(String kid) {
+        return signingKey.key();
+    }
+
+    @Override
+    public String jwks() {
+        return EMPTY_JWKS;
+    }
+}
@@ -1,15 +1,25 @@
 package tuyenbd.authentication.domain.auth.service.impl;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
+import tuyenbd.authentication.domain.auth.model.JwtSigningKey;
 import tuyenbd.authentication.domain.auth.service.JwtService;
+import tuyenbd.authentication.domain.auth.service.SigningKeyService;
+import tuyenbd.authentication.domain.user.entity.User;
 
 import java.security.Key;
 import java.util.Date;
@@ -19,14 +29,17 @@ import java.util.function.Function;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class JwtServiceImpl implements JwtService {
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    private final SigningKeyService signingKeyService;
+
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    private JwtParser jwtParser;
+
     @Override
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -46,61 +59,82 @@ public class JwtServiceImpl implements JwtService {
     @Override
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         log.debug("Generating access token for user: {}", userDetails.getUsername());
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        return buildToken(extraClaims, userDetails, TokenType.ACCESS, jwtExpiration);
     }
 
     @Override
     public String generateRefreshToken(UserDetails userDetails) {
         log.debug("Generating refresh token for user: {}", userDetails.getUsername());
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        return buildToken(new HashMap<>(), userDetails, TokenType.REFRESH, refreshExpiration);
     }
 
-    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
-        return Jwts
+    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, TokenType tokenType,
+                              long expiration) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(TOKEN_TYPE_CLAIM, tokenType.name());
+        if (userDetails instanceof User user && user.getId() != null && user.getRole() != null) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+            claims.put(TOKEN_EPOCH_CLAIM, user.getTokenEpoch());
+        }
+        JwtSigningKey signingKey = signingKeyService.signingKey();
+        JwtBuilder builder = Jwts
                 .builder()
-                .setClaims(extraClaims)
+                .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + expiration));
+        if (signingKey.kid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.kid());
+        }
+        return builder
+                .signWith(signingKey.key(), signingKey.algorithm())
                 .compact();
     }
 
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        boolean isValid = (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        String username;
+        boolean expired = false;
+        try {
+            username = parseAndVerify(token).subject();
+        } catch (ExpiredJwtException e) {
+            username = e.getClaims().getSubject();
+            expired = true;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid token for user: {}. {}", userDetails.getUsername(), e.getMessage());
+            return false;
+        }
+        boolean isValid = !expired && userDetails.getUsername().equals(username);
         if (!isValid) {
-            log.warn("Invalid token for user: {}. Token username: {}, Token expired: {}", 
-                userDetails.getUsername(), username, isTokenExpired(token));
+            log.warn("Invalid token for user: {}. Token username: {}, Token expired: {}",
+                userDetails.getUsername(), username, expired);
         }
         return isValid;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    @Override
+    public JwtClaims parseAndVerify(String token) {
+        return new JwtClaims(extractAllClaims(token));
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @PostConstruct
+    void init() {
+        // a built JwtParser is immutable and safe to share between request threads
+        jwtParser = Jwts
+                .parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return signingKeyService.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
 }
-
-
-
-
-
@@ -0,0 +1,78 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * AES-GCM envelope for private signing keys stored in {@code signing_keys}. The key encryption key comes from
+ * outside the database (environment or secret store); the kid is bound as associated data, so a ciphertext
+ * copied to another row does not decrypt.
+ */
+final class SigningKeyCipher {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec keyEncryptionKey;
+    private final SecureRandom random = new SecureRandom();
+
+    private SigningKeyCipher(byte[] keyEncryptionKey) {
+        this.keyEncryptionKey = new SecretKeySpec(keyEncryptionKey, "AES");
+    }
+
+    /**
+     * Fails when the key is missing or not a base64 AES-128/192/256 key, so asymmetric signing never starts
+     * with private keys stored in the clear.
+     */
+    static SigningKeyCipher of(String base64Key) {
+        if (base64Key == null || base64Key.isBlank()) {
+            throw new IllegalStateException("ES256 signing requires application.security.jwt.signing"
+                    + ".key-encryption-key (base64 AES key) to encrypt private keys at rest");
+        }
+        byte[] key;
+        try {
+            key = Base64.getDecoder().decode(base64Key.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Signing key encryption key is not valid base64", e);
+        }
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalStateException("Signing key encryption key must be 128, 192 or 256 bits");
+        }
+        return new SigningKeyCipher(key);
+    }
+
+    byte[] encrypt(String kid, byte[] plaintext) {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(plaintext);
+            byte[] result = Arrays.copyOf(iv, IV_LENGTH + ciphertext.length);
+            System.arraycopy(ciphertext, 0, result, IV_LENGTH, ciphertext.length);
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt signing key " + kid, e);
+        }
+    }
+
+    byte[] decrypt(String kid, byte[] encrypted) {
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, encrypted, 0, IV_LENGTH));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(encrypted, IV_LENGTH, encrypted.length - IV_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decrypt signing key " + kid
+                    + ", it was stored unencrypted or with another key encryption key", e);
+        }
+    }
+}
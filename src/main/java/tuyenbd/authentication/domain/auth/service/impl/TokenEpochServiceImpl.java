@@ -0,0 +1,91 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tuyenbd.authentication.domain.auth.service.TokenEpochService;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+import tuyenbd.authentication.domain.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Every token carries the epoch its user had when it was issued. Advancing the epoch invalidates all of the
+ * user's tokens at once; other instances notice once their cached epoch expires.
+ */
+@Slf4j
+@Service
+public class TokenEpochServiceImpl implements TokenEpochService {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> epochs;
+
+    public TokenEpochServiceImpl(UserRepository userRepository,
+                                 @Value("${application.security.jwt.epoch.cache-ttl}") Duration cacheTtl,
+                                 @Value("${application.security.jwt.epoch.cache-maximum-size}") long cacheMaximumSize) {
+        this.userRepository = userRepository;
+        this.epochs = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheMaximumSize)
+                .build();
+    }
+
+    @Override
+    public boolean isCurrent(Long userId, Long tokenEpoch) {
+        // tokens issued before epochs existed are still checked through their status
+        if (tokenEpoch == null) return true;
+        if (userId == null) return false;
+        Long current = epochs.getIfPresent(userId);
+        if (current == null) {
+            // loaded outside Cache.get(key, loader): the loader runs inside a synchronized map compute,
+            // which would pin a virtual thread for the whole query
+            current = userRepository.findTokenEpochById(userId).orElse(null);
+            if (current == null) return false;
+            epochs.asMap().putIfAbsent(userId, current);
+        }
+        return current.equals(tokenEpoch);
+    }
+
+    @Transactional
+    @Override
+    public long advance(User user) {
+        userRepository.incrementTokenEpoch(user.getId());
+        return reloadEpoch(user);
+    }
+
+    @Transactional
+    @Override
+    public long advanceIfActive(User user) {
+        if (userRepository.incrementTokenEpochIfStatus(user.getId(), UserStatus.ACTIVE) == 0) {
+            throw new DisabledException("User is not active");
+        }
+        return reloadEpoch(user);
+    }
+
+    private long reloadEpoch(User user) {
+        Long userId = user.getId();
+        long epoch = userRepository.findTokenEpochById(userId).orElseThrow();
+        // keep the entity in line with the row for callers that read it afterwards
+        user.setTokenEpoch(epoch);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    epochs.put(userId, epoch);
+                }
+            });
+        } else {
+            epochs.put(userId, epoch);
+        }
+        log.debug("Advanced token epoch of user {} to {}", userId, epoch);
+        return epoch;
+    }
+}
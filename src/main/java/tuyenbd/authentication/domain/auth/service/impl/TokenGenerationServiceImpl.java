@@ -0,0 +1,61 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tuyenbd.authentication.domain.auth.service.TokenGenerationService;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invalidates every cached token of a user at once. Cached tokens remember the generation that was current
+ * before they were read from the database; a revoke-all advances the user to a newer generation, so anything
+ * cached earlier is stale. Generations come from one increasing sequence and never repeat.
+ * The per-user map is size bounded; once an entry is evicted early, every user counts as advanced to the
+ * newest evicted generation, so an eviction can only make cached tokens stale, never fresh again.
+ */
+@Service
+public class TokenGenerationServiceImpl implements TokenGenerationService {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong evictedGeneration = new AtomicLong();
+    private final Cache<Long, Long> userGenerations;
+
+    public TokenGenerationServiceImpl(@Value("${application.cache.token.max-ttl}") Duration tokenCacheMaxTtl,
+                                      @Value("${application.cache.token-generation.maximum-size}") long maximumSize) {
+        // an entry only has to outlive the token cache entries that were read before it was written
+        this.userGenerations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(tokenCacheMaxTtl.multipliedBy(2))
+                .evictionListener((Long userId, Long generation, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && generation != null) {
+                        evictedGeneration.accumulateAndGet(generation, Math::max);
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public long currentGeneration() {
+        return sequence.get();
+    }
+
+    @Override
+    public boolean isStale(Long userId, long generation) {
+        if (userId == null) return false;
+        Long userGeneration = userGenerations.getIfPresent(userId);
+        if (userGeneration == null) {
+            return evictedGeneration.get() > generation;
+        }
+        return userGeneration > generation;
+    }
+
+    @Override
+    public void advanceGeneration(Long userId) {
+        if (userId == null) return;
+        userGenerations.put(userId, sequence.incrementAndGet());
+    }
+}
@@ -0,0 +1,96 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tuyenbd.authentication.domain.auth.service.TokenPartitionService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps monthly partitions of a PostgreSQL {@code tokens} table that was converted with
+ * {@code db/postgresql/partition_tokens.sql}. Partitions are created ahead of time and dropped once every
+ * token in them has expired, which is far cheaper than deleting the rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application.token-retention.partitioning.enabled", havingValue = "true")
+public class TokenPartitionServiceImpl implements TokenPartitionService {
+
+    static final String DROPPED_METRIC = "tokens.partitions.dropped";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("tokens_p(\\d{6})");
+    private static final String LIST_PARTITIONS = """
+            select c.relname from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            join pg_class p on p.oid = i.inhparent
+            where p.relname = 'tokens'""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.token-retention.partitioning.months-ahead}")
+    private int monthsAhead;
+    @Value("${application.token-retention.partitioning.retention}")
+    private Duration retention;
+    @Value("${application.security.jwt.refresh-token.expiration}")
+    private long refreshExpiration;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.token-retention.partitioning.cron}")
+    @Override
+    public void maintainPartitions() {
+        log.debug("Maintain token partitions start");
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+
+        // a partition is only dropped when its newest possible token is older than the longest token lifetime
+        Duration keep = retention.compareTo(Duration.ofMillis(refreshExpiration)) > 0
+                ? retention
+                : Duration.ofMillis(refreshExpiration);
+        LocalDateTime cutoff = LocalDateTime.now().minus(keep);
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS, String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) continue;
+            YearMonth month = YearMonth.parse(matcher.group(1), SUFFIX);
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isBefore(cutoff)) {
+                dropPartition(month);
+            }
+        }
+        log.info("Maintain token partitions done");
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("create table if not exists " + partitionName(month) + " partition of tokens"
+                + " for values from ('" + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private void dropPartition(YearMonth month) {
+        String partition = partitionName(month);
+        jdbcTemplate.execute("drop table if exists " + partition);
+        meterRegistry.counter(DROPPED_METRIC).increment();
+        log.info("Dropped token partition {}", partition);
+    }
+
+    static String partitionName(YearMonth month) {
+        return "tokens_p" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,119 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tuyenbd.authentication.domain.auth.enums.TokenStatus;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.repository.TokenRepository;
+import tuyenbd.authentication.domain.auth.service.TokenRetentionService;
+import tuyenbd.authentication.domain.auth.service.TokenRevocationService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Deletes expired and revoked rows from the tokens table in small batches, so a purge never holds
+ * long locks or floods the database with one huge delete.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRetentionServiceImpl implements TokenRetentionService {
+
+    static final String PURGED_METRIC = "tokens.purged";
+    static final String PURGE_TIMER = "tokens.purge";
+
+    private final TokenRepository tokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.token-retention.enabled}")
+    private boolean enabled;
+    @Value("${application.token-retention.batch-size}")
+    private int batchSize;
+    @Value("${application.token-retention.batch-pause}")
+    private Duration batchPause;
+    @Value("${application.token-retention.max-batches-per-run}")
+    private int maxBatchesPerRun;
+    @Value("${application.token-retention.inactive-retention}")
+    private Duration inactiveRetention;
+    @Value("${application.security.jwt.expiration}")
+    private long jwtExpiration;
+    @Value("${application.security.jwt.refresh-token.expiration}")
+    private long refreshExpiration;
+
+    @Scheduled(fixedDelayString = "${application.token-retention.purge-interval}",
+            initialDelayString = "${application.token-retention.purge-interval}")
+    @Override
+    public long purge() {
+        if (!enabled) return 0;
+        log.debug("Purge tokens start");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long purged = 0;
+        int batches = 0;
+        try {
+            for (PurgeTarget target : purgeTargets(LocalDateTime.now())) {
+                while (batches < maxBatchesPerRun) {
+                    List<Long> ids = target.nextBatch().apply(PageRequest.of(0, batchSize));
+                    if (ids.isEmpty()) break;
+                    tokenRepository.deleteAllByIdInBatch(ids);
+                    batches++;
+                    purged += ids.size();
+                    meterRegistry.counter(PURGED_METRIC, "reason", target.reason()).increment(ids.size());
+                    if (ids.size() < batchSize) break;
+                    if (!pause()) return purged;
+                }
+            }
+            log.info("Purge tokens done, {} rows in {} batches", purged, batches);
+            return purged;
+        } finally {
+            sample.stop(meterRegistry.timer(PURGE_TIMER));
+        }
+    }
+
+    private List<PurgeTarget> purgeTargets(LocalDateTime now) {
+        List<PurgeTarget> targets = new ArrayList<>();
+        LocalDateTime accessCutoff = now.minus(Duration.ofMillis(jwtExpiration));
+        LocalDateTime refreshCutoff = now.minus(Duration.ofMillis(refreshExpiration));
+        targets.add(new PurgeTarget("expired", page ->
+                tokenRepository.findIdsByTokenTypeAndCreatedAtBefore(TokenType.ACCESS, accessCutoff, page)));
+        targets.add(new PurgeTarget("expired", page ->
+                tokenRepository.findIdsByTokenTypeAndCreatedAtBefore(TokenType.REFRESH, refreshCutoff, page)));
+
+        // in stateless mode the revocation filter is rebuilt from revoked access tokens, they have to stay until they expire
+        Set<TokenType> inactiveTypes = tokenRevocationService.isEnabled()
+                ? EnumSet.of(TokenType.REFRESH)
+                : EnumSet.allOf(TokenType.class);
+        LocalDateTime inactiveCutoff = now.minus(inactiveRetention);
+        targets.add(new PurgeTarget("inactive", page -> tokenRepository.findIdsByStatusAndTokenTypeInAndUpdatedAtBefore(
+                TokenStatus.INACTIVE, inactiveTypes, inactiveCutoff, page)));
+        return targets;
+    }
+
+    private boolean pause() {
+        if (batchPause.isZero()) return true;
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Purge tokens interrupted");
+            return false;
+        }
+    }
+
+    private record PurgeTarget(String reason, Function<Pageable, List<Long>> nextBatch) {
+    }
+}
@@ -0,0 +1,116 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tuyenbd.authentication.domain.auth.enums.TokenStatus;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.repository.TokenRepository;
+import tuyenbd.authentication.domain.auth.service.TokenRevocationService;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory view of revoked access tokens used by the stateless validation mode.
+ * Revocations made on other instances only show up after the next {@link #rebuild()}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private final TokenRepository tokenRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${application.security.jwt.stateless-validation.enabled}")
+    private boolean enabled;
+    @Value("${application.security.jwt.stateless-validation.expected-revocations}")
+    private long expectedRevocations;
+    @Value("${application.security.jwt.stateless-validation.false-positive-rate}")
+    private double falsePositiveRate;
+
+    private volatile RevocationBloomFilter filter;
+    private volatile boolean rebuilding;
+    private final Set<String> revokedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean mightBeRevoked(String jwt) {
+        RevocationBloomFilter current = filter;
+        // until the first load completes every token has to be checked against the database
+        return current == null || current.mightContain(jwt);
+    }
+
+    @Override
+    public void markRevoked(String jwt) {
+        put(jwt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a rebuild that read the table before this commit must still see the revocation
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(jwt);
+                }
+            });
+        }
+    }
+
+    private void put(String jwt) {
+        // recorded before the null check, the first build would otherwise drop revocations made while it runs
+        if (rebuilding) {
+            revokedDuringRebuild.add(jwt);
+        }
+        RevocationBloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        current.put(jwt);
+        RevocationBloomFilter latest = filter;
+        if (latest != current) {
+            latest.put(jwt);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.security.jwt.stateless-validation.rebuild-interval}",
+            initialDelayString = "${application.security.jwt.stateless-validation.rebuild-interval}")
+    @Override
+    public void rebuild() {
+        if (!enabled) return;
+        log.debug("Rebuild revocation filter start");
+        rebuilding = true;
+        try {
+            long revoked = tokenRepository.countByStatusAndTokenType(TokenStatus.INACTIVE, TokenType.ACCESS);
+            RevocationBloomFilter next = new RevocationBloomFilter(Math.max(expectedRevocations, revoked * 2),
+                    falsePositiveRate);
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<String> tokens = tokenRepository.streamTokensByStatusAndType(TokenStatus.INACTIVE,
+                        TokenType.ACCESS)) {
+                    tokens.forEach(next::put);
+                }
+            });
+            filter = next;
+            revokedDuringRebuild.forEach(next::put);
+            log.info("Rebuild revocation filter done, {} revoked tokens", revoked);
+        } finally {
+            rebuilding = false;
+            revokedDuringRebuild.clear();
+        }
+    }
+}
@@ -1,51 +1,221 @@
 package tuyenbd.authentication.domain.auth.service.impl;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tuyenbd.authentication.config.CacheConfig;
 import tuyenbd.authentication.controller.dto.AuthenticationResponse;
 import tuyenbd.authentication.controller.dto.TokenRequest;
 import tuyenbd.authentication.controller.dto.TokenValidationResponse;
 import tuyenbd.authentication.domain.auth.entity.Token;
 import tuyenbd.authentication.domain.auth.enums.TokenStatus;
 import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
+import tuyenbd.authentication.domain.auth.model.TokenCacheKey;
+import tuyenbd.authentication.domain.auth.model.TokenDigest;
+import tuyenbd.authentication.domain.auth.model.TokenPrincipal;
 import tuyenbd.authentication.domain.auth.repository.TokenRepository;
 import tuyenbd.authentication.domain.auth.service.JwtService;
+import tuyenbd.authentication.domain.auth.service.TokenEpochService;
+import tuyenbd.authentication.domain.auth.service.TokenGenerationService;
+import tuyenbd.authentication.domain.auth.service.TokenRevocationService;
 import tuyenbd.authentication.domain.auth.service.TokenService;
+import tuyenbd.authentication.domain.auth.service.TokenWriteBehindService;
 import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.model.UserCredentials;
+import tuyenbd.authentication.domain.user.service.UserCredentialsService;
 import tuyenbd.authentication.exception.TokenNotFoundException;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToLongFunction;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TokenServiceImpl implements TokenService {
 
+    static final String UNKNOWN_TOKEN_METRIC = "tokens.unknown";
+    static final String COALESCED_METRIC = "tokens.lookup.coalesced";
+    static final String INVALID_TOKEN_METRIC = "tokens.invalid";
+
     private final TokenRepository tokenRepository;
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final CacheManager cacheManager;
+    private final TokenGenerationService tokenGenerationService;
+    private final TokenEpochService tokenEpochService;
+    private final TokenWriteBehindService tokenWriteBehindService;
+    private final UserCredentialsService userCredentialsService;
+    private final BatchJwtVerifier batchJwtVerifier;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${application.security.jwt.validation.max-batch-size}")
+    private int maxBatchSize;
+    @Value("${application.security.jwt.validation.coalesce-timeout}")
+    private Duration coalesceTimeout;
+    @Value("${application.security.jwt.write-behind.max-lag}")
+    private Duration writeBehindMaxLag;
+    @Value("${application.cache.unknown-token.grace}")
+    private Duration unknownTokenGrace;
+
+    // lookups running for a missed cache key, later misses for the same key wait for them
+    private final ConcurrentMap<TokenCacheKey, CompletableFuture<TokenPrincipal>> inFlightLoads =
+            new ConcurrentHashMap<>();
 
     @Lazy
     @Autowired
     private TokenServiceImpl self;
 
-    @Cacheable(cacheNames = "token", key = "#jwt + #tokenType")
     @Override
-    public Token getToken(String jwt, TokenType tokenType) {
+    public TokenPrincipal getToken(String jwt, TokenType tokenType) {
+        TokenPrincipal token = self.loadToken(jwt, tokenType);
+        if (tokenGenerationService.isStale(token.userId(), token.cacheGeneration())) {
+            // the user's tokens were revoked after this entry was cached
+            self.clearTokenCache(jwt, tokenType);
+            token = self.loadToken(jwt, tokenType);
+        }
+        return token;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TOKEN_CACHE, keyGenerator = CacheConfig.TOKEN_CACHE_KEY_GENERATOR)
+    public TokenPrincipal loadToken(String jwt, TokenType tokenType) {
+        // only cache misses get here, so hits pay nothing for the coalescing
+        TokenCacheKey key = tokenCacheKey(jwt, tokenType);
+        CompletableFuture<TokenPrincipal> load = new CompletableFuture<>();
+        CompletableFuture<TokenPrincipal> inFlight = inFlightLoads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return awaitLoad(inFlight, jwt, tokenType);
+        }
+        try {
+            TokenPrincipal token = lookupToken(jwt, tokenType);
+            load.complete(token);
+            return token;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
+    private TokenPrincipal awaitLoad(CompletableFuture<TokenPrincipal> inFlight, String jwt, TokenType tokenType) {
+        try {
+            // the leader's generation was read before its query, reusing its result can only look staler
+            TokenPrincipal token = inFlight.get(coalesceTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            meterRegistry.counter(COALESCED_METRIC, "result", "joined").increment();
+            return token;
+        } catch (ExecutionException e) {
+            meterRegistry.counter(COALESCED_METRIC, "result", "joined").increment();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            meterRegistry.counter(COALESCED_METRIC, "result", "timeout").increment();
+            log.warn("Token lookup still running after {}, querying directly", coalesceTimeout);
+            return lookupToken(jwt, tokenType);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a token lookup", e);
+        }
+    }
+
+    private TokenPrincipal lookupToken(String jwt, TokenType tokenType) {
         log.info("Get Token {}", tokenType);
-        return tokenRepository.findByTokenAndTokenType(jwt, tokenType)
-                .orElseThrow(() -> new TokenNotFoundException("Token not found"));
+        // forged and expired tokens never repeat usefully, reject them before any cache or database work
+        JwtClaims claims;
+        try {
+            claims = jwtService.parseAndVerify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            countInvalid(1);
+            throw new TokenNotFoundException("Invalid token");
+        }
+        long generation = tokenGenerationService.currentGeneration();
+        String tokenHash = TokenDigest.of(jwt);
+        Cache unknownTokens = cacheManager.getCache(CacheConfig.UNKNOWN_TOKEN_CACHE);
+        SimpleKey unknownKey = new SimpleKey(tokenHash, tokenType);
+        if (unknownTokens != null && unknownTokens.get(unknownKey) != null) {
+            countUnknown("cache", 1);
+            throw new TokenNotFoundException("Token not found");
+        }
+        TokenPrincipal token = tokenRepository.findPrincipalByTokenHashAndTokenType(tokenHash, tokenType)
+                .or(() -> findPendingToken(tokenHash, tokenType))
+                .orElse(null);
+        if (token == null) {
+            // exceptions are not cached by @Cacheable, remember the miss so retries skip the query
+            if (unknownTokens != null && isSettled(claims)) {
+                unknownTokens.put(unknownKey, Boolean.TRUE);
+            }
+            countUnknown("database", 1);
+            throw new TokenNotFoundException("Token not found");
+        }
+        return token.withExpiresAt(claims.expiration()).withCacheGeneration(generation);
+    }
+
+    /**
+     * Whether a verified token that is not stored can be remembered as unknown. A token issued moments ago on
+     * another instance may still sit in that instance's write-behind queue, caching it would reject a fresh login.
+     */
+    private boolean isSettled(JwtClaims claims) {
+        Instant issuedAt = claims.issuedAt();
+        return issuedAt == null
+                || issuedAt.isBefore(Instant.now().minus(writeBehindMaxLag).minus(unknownTokenGrace));
+    }
+
+    private void countUnknown(String source, int count) {
+        meterRegistry.counter(UNKNOWN_TOKEN_METRIC, "source", source).increment(count);
+    }
+
+    private void countInvalid(int count) {
+        meterRegistry.counter(INVALID_TOKEN_METRIC).increment(count);
+    }
+
+    private Instant expiresAt(String jwt) {
+        try {
+            return jwtService.parseAndVerify(jwt).expiration();
+        } catch (ExpiredJwtException e) {
+            return e.getClaims().getExpiration().toInstant();
+        } catch (JwtException | IllegalArgumentException e) {
+            // a stored token that no longer verifies, e.g. its signing key was retired
+            log.warn("Stored token does not verify: {}", e.getMessage());
+            return Instant.EPOCH;
+        }
     }
 
     @Override
     @Transactional
     public AuthenticationResponse createToken(User user) {
         log.debug("Creating new tokens for user: {}", user.getEmail());
-        revokeAllUserTokens(user);
+        revokeAllUserTokens(user, tokenEpochService::advanceIfActive);
 
         String accessToken = createAccessToken(user);
         String refreshToken = createRefreshToken(user);
@@ -73,23 +243,67 @@ public class TokenServiceImpl implements TokenService {
         Token token = Token.builder()
                 .user(user)
                 .token(tokenValue)
+                .tokenHash(TokenDigest.of(tokenValue))
                 .tokenType(tokenType)
+                .tokenEpoch(user.getTokenEpoch())
                 .build();
-        tokenRepository.save(token);
+        Cache unknownTokens = cacheManager.getCache(CacheConfig.UNKNOWN_TOKEN_CACHE);
+        if (unknownTokens != null) {
+            unknownTokens.evict(new SimpleKey(token.getTokenHash(), tokenType));
+        }
+        if (tokenWriteBehindService.isEnabled()) {
+            writeBehindAfterCommit(token);
+        } else {
+            tokenRepository.save(token);
+        }
+    }
+
+    private void writeBehindAfterCommit(Token token) {
+        Runnable write = () -> {
+            tokenWriteBehindService.write(token);
+            // served from the cache until the writer has inserted it
+            Cache cache = cacheManager.getCache(CacheConfig.TOKEN_CACHE);
+            if (cache != null) {
+                cache.put(tokenCacheKey(token.getToken(), token.getTokenType()), TokenPrincipal.of(token)
+                        .withExpiresAt(expiresAt(token.getToken()))
+                        .withCacheGeneration(tokenGenerationService.currentGeneration()));
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run();
+            return;
+        }
+        // a rolled back login must not leave tokens behind
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+
+    private Optional<TokenPrincipal> findPendingToken(String tokenHash, TokenType tokenType) {
+        if (!tokenWriteBehindService.isEnabled()) return Optional.empty();
+        return tokenWriteBehindService.findPending(tokenHash)
+                .filter(token -> token.getTokenType() == tokenType)
+                .map(TokenPrincipal::of);
     }
 
     @Transactional
     @Override
     public AuthenticationResponse refreshToken(TokenRequest request) {
         log.debug("Processing token refresh request");
-        Token token = self.getToken(request.getToken(), TokenType.REFRESH);
+        TokenPrincipal token = self.getToken(request.getToken(), TokenType.REFRESH);
         if (!isTokenValid(token)) {
-            log.warn("Invalid refresh token attempt for user: {}", token.getUser().getEmail());
+            log.warn("Invalid refresh token attempt for user: {}", token.email());
             throw new IllegalArgumentException("Invalid refresh token");
         }
 
-        User user = token.getUser();
-        revokeAllUserTokens(user);
+        // the epoch and the status are re-checked in the database below, a cached credential is good enough here
+        User user = userCredentialsService.findByEmail(token.email())
+                .map(UserCredentials::toUser)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        revokeAllUserTokens(user, tokenEpochService::advanceIfActive);
         String newAccessToken = createAccessToken(user);
         log.info("Successfully refreshed tokens for user: {}", user.getEmail());
         return buildAuthResponse(newAccessToken, request.getToken());
@@ -105,39 +319,170 @@ public class TokenServiceImpl implements TokenService {
     @Transactional
     @Override
     public void revokeAllUserTokens(User user) {
+        revokeAllUserTokens(user, tokenEpochService::advance);
+    }
+
+    // issuing paths advance with advanceIfActive: credentials may come from another instance's stale cache
+    private void revokeAllUserTokens(User user, ToLongFunction<User> advanceEpoch) {
         log.debug("Revoke all token start {}", user.getEmail());
-        var validTokens = tokenRepository.findAllActiveTokensByUser(user.getId());
-        if (validTokens.isEmpty()) return;
+        // the epoch alone invalidates every token of the user, in both the database and the stateless path
+        long epoch = advanceEpoch.applyAsLong(user);
 
-        validTokens.forEach(token -> token.setStatus(TokenStatus.INACTIVE));
-        tokenRepository.saveAll(validTokens);
+        // statuses are kept in line for the purge and for tokens issued without an epoch
+        int revoked = tokenRepository.updateStatusByUser(user.getId(), TokenStatus.ACTIVE, TokenStatus.INACTIVE,
+                LocalDateTime.now());
+        if (revoked > 0) {
+            advanceGenerationAfterCommit(user.getId());
+        }
+        log.info("Revoke all token done {}, epoch {}, {} tokens", user.getEmail(), epoch, revoked);
+    }
 
-        validTokens.forEach(token -> self.clearTokenCache(token));
-        log.info("Revoke all token done {}", user.getEmail());
+    private void advanceGenerationAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tokenGenerationService.advanceGeneration(userId);
+            return;
+        }
+        // advancing before the commit would let a concurrent load cache the still active rows under the new generation
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenGenerationService.advanceGeneration(userId);
+            }
+        });
     }
 
     @Override
     public TokenValidationResponse validateToken(TokenRequest request) {
         log.debug("Validating token request");
         String jwt = request.getToken();
-        Token token = self.getToken(jwt, TokenType.ACCESS);
-        User user = token.getUser();
+        TokenPrincipal token = self.getToken(jwt, TokenType.ACCESS);
 
         boolean isValid = isTokenValid(token);
-        log.info("Token validation result for user {}: {}", user.getEmail(), isValid);
+        log.info("Token validation result for user {}: {}", token.email(), isValid);
+
+        return buildValidationResponse(token, isValid);
+    }
+
+    @Override
+    public List<TokenValidationResponse> validateTokens(List<String> jwts) {
+        if (jwts == null || jwts.isEmpty()) {
+            return List.of();
+        }
+        if (jwts.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Token batch size must not exceed " + maxBatchSize);
+        }
+        log.debug("Validating token batch of {}", jwts.size());
+        Map<String, TokenPrincipal> tokens = resolveAccessTokens(jwts);
+
+        // signatures were verified in parallel while resolving; isTokenValid may load an epoch from the
+        // database, so it stays on the request thread
+        List<TokenValidationResponse> responses = jwts.stream()
+                .map(jwt -> {
+                    TokenPrincipal token = tokens.get(jwt);
+                    if (token == null) {
+                        return TokenValidationResponse.builder().valid(false).build();
+                    }
+                    return buildValidationResponse(token, isTokenValid(token));
+                })
+                .toList();
+        log.info("Token batch validation done, {} tokens", jwts.size());
+        return responses;
+    }
 
+    private Map<String, TokenPrincipal> resolveAccessTokens(List<String> jwts) {
+        Cache cache = cacheManager.getCache(CacheConfig.TOKEN_CACHE);
+        Cache unknownTokens = cacheManager.getCache(CacheConfig.UNKNOWN_TOKEN_CACHE);
+        Map<String, TokenPrincipal> tokens = new HashMap<>();
+        Set<String> uncached = new LinkedHashSet<>();
+        long generation = tokenGenerationService.currentGeneration();
+        for (String jwt : jwts) {
+            if (jwt == null || tokens.containsKey(jwt)) continue;
+            TokenPrincipal cached = cache == null
+                    ? null
+                    : cache.get(tokenCacheKey(jwt, TokenType.ACCESS), TokenPrincipal.class);
+            if (cached != null && !tokenGenerationService.isStale(cached.userId(), cached.cacheGeneration())) {
+                tokens.put(jwt, cached);
+            } else {
+                uncached.add(jwt);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return tokens;
+        }
+
+        // CPU only, verified in parallel before any database access; tokens that fail are answered as invalid
+        Map<String, JwtClaims> verified = batchJwtVerifier.verifyAll(List.copyOf(uncached));
+        if (verified.size() < uncached.size()) {
+            countInvalid(uncached.size() - verified.size());
+        }
+        Map<String, String> missed = new HashMap<>();
+        int knownUnknown = 0;
+        for (String jwt : uncached) {
+            if (!verified.containsKey(jwt)) continue;
+            String tokenHash = TokenDigest.of(jwt);
+            if (unknownTokens != null && unknownTokens.get(new SimpleKey(tokenHash, TokenType.ACCESS)) != null) {
+                knownUnknown++;
+            } else {
+                missed.put(tokenHash, jwt);
+            }
+        }
+        if (knownUnknown > 0) {
+            countUnknown("cache", knownUnknown);
+        }
+        if (missed.isEmpty()) {
+            return tokens;
+        }
+        for (TokenPrincipal found : tokenRepository.findPrincipalsByTokenHashInAndTokenType(missed.keySet(),
+                TokenType.ACCESS)) {
+            String jwt = missed.remove(found.tokenHash());
+            TokenPrincipal token = found.withExpiresAt(verified.get(jwt).expiration())
+                    .withCacheGeneration(generation);
+            tokens.put(jwt, token);
+            if (cache != null) {
+                cache.put(tokenCacheKey(jwt, TokenType.ACCESS), token);
+            }
+        }
+        int unknown = 0;
+        for (Map.Entry<String, String> entry : missed.entrySet()) {
+            TokenPrincipal pending = findPendingToken(entry.getKey(), TokenType.ACCESS).orElse(null);
+            if (pending != null) {
+                tokens.put(entry.getValue(), pending.withExpiresAt(verified.get(entry.getValue()).expiration())
+                        .withCacheGeneration(generation));
+                continue;
+            }
+            if (unknownTokens != null && isSettled(verified.get(entry.getValue()))) {
+                unknownTokens.put(new SimpleKey(entry.getKey(), TokenType.ACCESS), Boolean.TRUE);
+            }
+            unknown++;
+        }
+        if (unknown > 0) {
+            countUnknown("database", unknown);
+        }
+        return tokens;
+    }
+
+    // must match the key generator used by loadToken and clearTokenCache
+    private static TokenCacheKey tokenCacheKey(String jwt, TokenType tokenType) {
+        return new TokenCacheKey(jwt, tokenType);
+    }
+
+    private TokenValidationResponse buildValidationResponse(TokenPrincipal token, boolean isValid) {
         return TokenValidationResponse.builder()
                 .valid(isValid)
-                .username(user.getUsername())
-                .roles(user.getAuthorities())
+                .username(token.getUsername())
+                .roles(token.getAuthorities())
                 .build();
     }
 
     @Override
-    public boolean isTokenValid(Token token) {
-        boolean isValid = jwtService.isTokenValid(token.getToken(), token.getUser()) && token.getStatus() == TokenStatus.ACTIVE;
+    public boolean isTokenValid(TokenPrincipal token) {
+        // the signature was verified when the token was loaded, the hash lookup ties it to the stored JWT
+        boolean isValid = token.status() == TokenStatus.ACTIVE
+                && token.isEnabled()
+                && !token.isExpired()
+                && tokenEpochService.isCurrent(token.userId(), token.tokenEpoch());
         if (!isValid) {
-            log.debug("Token invalid for user: {}. Status: {}", token.getUser().getEmail(), token.getStatus());
+            log.debug("Token invalid for user: {}. Status: {}", token.email(), token.status());
         }
         return isValid;
     }
@@ -152,21 +497,25 @@ public class TokenServiceImpl implements TokenService {
     @Override
     public void disableToken(String jwt) {
         log.debug("Disable token start");
-        Token token = self.getToken(jwt, TokenType.ACCESS);
-        markTokenAsRevoked(token);
+        TokenPrincipal token = self.getToken(jwt, TokenType.ACCESS);
+        markTokenAsRevoked(jwt, token);
         SecurityContextHolder.clearContext();
         log.info("Disable token done");
     }
 
-    private void markTokenAsRevoked(Token token) {
-        token.setStatus(TokenStatus.INACTIVE);
-        tokenRepository.save(token);
-        self.clearTokenCache(token);
+    private void markTokenAsRevoked(String jwt, TokenPrincipal token) {
+        if (tokenWriteBehindService.isEnabled() && tokenWriteBehindService.findPending(token.tokenHash()).isPresent()) {
+            // still queued, insert it first so the status change below finds the row
+            tokenWriteBehindService.flush();
+        }
+        tokenRepository.updateStatusByTokenHash(token.tokenHash(), TokenStatus.INACTIVE, LocalDateTime.now());
+        tokenRevocationService.markRevoked(jwt);
+        self.clearTokenCache(jwt, token.tokenType());
     }
 
-    @CacheEvict(cacheNames = "token", key = "#token.token + #token.tokenType")
-    public void clearTokenCache(Token token) {
-        log.info("Clear token cache {}", token.getTokenType());
+    @CacheEvict(cacheNames = CacheConfig.TOKEN_CACHE, keyGenerator = CacheConfig.TOKEN_CACHE_KEY_GENERATOR)
+    public void clearTokenCache(String jwt, TokenType tokenType) {
+        log.info("Clear token cache {}", tokenType);
     }
 }
 
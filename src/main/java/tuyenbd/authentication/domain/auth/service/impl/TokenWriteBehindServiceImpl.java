@@ -0,0 +1,211 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tuyenbd.authentication.domain.auth.entity.Token;
+import tuyenbd.authentication.domain.auth.repository.TokenRepository;
+import tuyenbd.authentication.domain.auth.service.TokenWriteBehindService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Inserts new tokens from a background thread in batches of up to max-batch-size, at most max-lag after the
+ * first token of a batch was queued. Until then they are served from the token cache and {@link #findPending}.
+ * Tokens still queued when the process dies are lost and their users have to log in again.
+ */
+@Slf4j
+@Service
+public class TokenWriteBehindServiceImpl implements TokenWriteBehindService, DisposableBean {
+
+    static final String FLUSH_TIMER = "tokens.write-behind.flush";
+    static final String FALLBACK_METRIC = "tokens.write-behind.fallback";
+    static final String FAILED_METRIC = "tokens.write-behind.failed";
+
+    private final TokenRepository tokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration maxLag;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<Token> queue;
+    private final Map<String, Token> pending = new ConcurrentHashMap<>();
+    // held by the writer while it collects and inserts a batch, flush() waits for that batch to be written
+    private final ReentrantLock flushLock = new ReentrantLock(true);
+    private final Timer flushTimer;
+    private final Counter fallbacks;
+    private final Counter failures;
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public TokenWriteBehindServiceImpl(TokenRepository tokenRepository, PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${application.security.jwt.write-behind.enabled}") boolean enabled,
+                                       @Value("${application.security.jwt.write-behind.max-batch-size}") int maxBatchSize,
+                                       @Value("${application.security.jwt.write-behind.max-lag}") Duration maxLag,
+                                       @Value("${application.security.jwt.write-behind.queue-capacity}") int queueCapacity,
+                                       @Value("${application.security.jwt.write-behind.offer-timeout}") Duration offerTimeout,
+                                       @Value("${application.security.jwt.write-behind.shutdown-timeout}") Duration shutdownTimeout) {
+        this.tokenRepository = tokenRepository;
+        // the queue-full fallback runs in afterCommit of the login transaction; joining that finished
+        // transaction would silently drop the insert
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLag = maxLag;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushTimer = meterRegistry.timer(FLUSH_TIMER);
+        this.fallbacks = meterRegistry.counter(FALLBACK_METRIC);
+        this.failures = meterRegistry.counter(FAILED_METRIC);
+        Gauge.builder("tokens.write-behind.queued", queue, Collection::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        writer = Thread.ofPlatform().name("token-write-behind").daemon().start(this::run);
+        log.info("Token write-behind started, max lag {}, max batch {}", maxLag, maxBatchSize);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void write(Token token) {
+        pending.put(token.getTokenHash(), token);
+        if (running && offer(token)) return;
+        // queue full: the caller inserts the token itself, so logins slow down to what the database sustains
+        fallbacks.increment();
+        persist(List.of(token));
+    }
+
+    private boolean offer(Token token) {
+        try {
+            return queue.offer(token, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<Token> findPending(String tokenHash) {
+        return Optional.ofNullable(pending.get(tokenHash));
+    }
+
+    @Override
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Token> batch = new ArrayList<>();
+            queue.drainTo(batch);
+            if (!batch.isEmpty()) {
+                persist(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            List<Token> batch = new ArrayList<>();
+            flushLock.lock();
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                try {
+                    if (!batch.isEmpty()) {
+                        persist(batch);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Token write-behind flush failed", e);
+                } finally {
+                    flushLock.unlock();
+                }
+            }
+        }
+    }
+
+    private void collect(List<Token> batch) throws InterruptedException {
+        Token first = queue.poll(maxLag.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) return;
+        batch.add(first);
+        long deadline = System.nanoTime() + maxLag.toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) return;
+            Token next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) return;
+            batch.add(next);
+        }
+    }
+
+    private void persist(List<Token> batch) {
+        try {
+            flushTimer.record(() -> saveBatch(batch));
+        } finally {
+            batch.forEach(token -> pending.remove(token.getTokenHash()));
+        }
+    }
+
+    private void saveBatch(List<Token> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> tokenRepository.saveAll(batch));
+            return;
+        } catch (DataAccessException e) {
+            log.warn("Batch insert of {} tokens failed, retrying one by one: {}", batch.size(), e.getMessage());
+        }
+        for (Token token : batch) {
+            token.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> tokenRepository.save(token));
+            } catch (DataAccessException e) {
+                failures.increment();
+                log.error("Dropping token {} of user {}: {}", token.getTokenType(),
+                        token.getUser() == null ? null : token.getUser().getId(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(shutdownTimeout.toMillis());
+        }
+        flush();
+        log.info("Token write-behind stopped");
+    }
+}
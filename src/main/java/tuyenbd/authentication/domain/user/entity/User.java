@@ -1,35 +1,41 @@
 package tuyenbd.authentication.domain.user.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import tuyenbd.authentication.config.AllocatedSequence;
 import tuyenbd.authentication.domain.user.enums.Role;
 import tuyenbd.authentication.domain.user.enums.UserStatus;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.List;
+import java.util.Locale;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_email", columnList = "email", unique = true)
+})
 public class User implements UserDetails {
     @Id
-    @GeneratedValue
+    @AllocatedSequence
     private Long id;
     private String firstname;
     private String lastname;
@@ -40,15 +46,33 @@ public class User implements UserDetails {
     @Builder.Default
     @Enumerated(EnumType.STRING)
     private UserStatus status = UserStatus.ACTIVE;
+    @Builder.Default
+    @ColumnDefault("0")
+    // only advanced by UserRepository.incrementTokenEpoch, a save of a stale entity must not write it back
+    @Column(name = "token_epoch", nullable = false, updatable = false)
+    private long tokenEpoch = 0;
 
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    /**
+     * Canonical form of an email address, used both when storing and when looking users up.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeStoredEmail() {
+        email = normalizeEmail(email);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority(role.name()));
+        return role.getAuthorities();
     }
 
     @Override
@@ -1,6 +1,18 @@
 package tuyenbd.authentication.domain.user.enums;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
 public enum Role {
     USER,
-    ADMIN
-}
\ No newline at end of file
+    ADMIN;
+
+    // shared by every principal of this role instead of a new list per authentication
+    private final List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(name()));
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
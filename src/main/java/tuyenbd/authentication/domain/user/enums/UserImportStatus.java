@@ -0,0 +1,10 @@
+package tuyenbd.authentication.domain.user.enums;
+
+public enum UserImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    // password hashing stayed saturated through every retry, the row can be imported again later
+    REJECTED,
+    FAILED
+}
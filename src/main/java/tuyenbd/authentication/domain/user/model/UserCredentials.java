@@ -0,0 +1,26 @@
+package tuyenbd.authentication.domain.user.model;
+
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+
+/**
+ * Columns needed to authenticate a user and issue tokens, loaded without the full {@link User} entity.
+ */
+public record UserCredentials(Long id, String email, String password, Role role, UserStatus status,
+                              long tokenEpoch) {
+
+    /**
+     * Detached principal carrying only the projected fields.
+     */
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .password(password)
+                .role(role)
+                .status(status)
+                .tokenEpoch(tokenEpoch)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package tuyenbd.authentication.domain.user.model;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional user list filters, bound from query parameters. {@code createdTo} is exclusive.
+ */
+public record UserFilter(Role role, UserStatus status,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+
+    public static UserFilter none() {
+        return new UserFilter(null, null, null, null);
+    }
+}
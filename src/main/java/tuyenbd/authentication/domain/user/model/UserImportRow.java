@@ -0,0 +1,18 @@
+package tuyenbd.authentication.domain.user.model;
+
+import tuyenbd.authentication.controller.dto.RegisterRequest;
+
+/**
+ * One input line of a bulk import. {@code error} is set instead of {@code request} when the line could not be
+ * parsed.
+ */
+public record UserImportRow(long line, RegisterRequest request, String error) {
+
+    public static UserImportRow of(long line, RegisterRequest request) {
+        return new UserImportRow(line, request, null);
+    }
+
+    public static UserImportRow invalid(long line, String error) {
+        return new UserImportRow(line, null, error);
+    }
+}
@@ -1,10 +1,68 @@
 package tuyenbd.authentication.domain.user.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import tuyenbd.authentication.controller.dto.UserSummary;
 import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+import tuyenbd.authentication.domain.user.model.UserCredentials;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    String SUMMARY_SELECT = "select new tuyenbd.authentication.controller.dto.UserSummary("
+            + "u.id, u.firstname, u.lastname, u.email, u.role, u.status, u.createdAt) from User u ";
+    String SUMMARY_FILTER = "(:role is null or u.role = :role) and (:status is null or u.status = :status) "
+            + "and (:createdFrom is null or u.createdAt >= :createdFrom) "
+            + "and (:createdTo is null or u.createdAt < :createdTo) ";
+
     Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new tuyenbd.authentication.domain.user.model.UserCredentials("
+            + "u.id, u.email, u.password, u.role, u.status, u.tokenEpoch) from User u where u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    // keyset page: walks the primary key index from afterId, cost does not grow with the page number
+    @Query(SUMMARY_SELECT + "where u.id > :afterId and " + SUMMARY_FILTER + "order by u.id")
+    List<UserSummary> findSummariesAfter(@Param("afterId") long afterId, @Param("role") Role role,
+                                         @Param("status") UserStatus status,
+                                         @Param("createdFrom") LocalDateTime createdFrom,
+                                         @Param("createdTo") LocalDateTime createdTo, Pageable pageable);
+
+    // server-side cursor, must be consumed and closed inside a transaction
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query(SUMMARY_SELECT + "where " + SUMMARY_FILTER + "order by u.id")
+    Stream<UserSummary> streamSummaries(@Param("role") Role role, @Param("status") UserStatus status,
+                                        @Param("createdFrom") LocalDateTime createdFrom,
+                                        @Param("createdTo") LocalDateTime createdTo);
+
+    @Query("select u.tokenEpoch from User u where u.id = :id")
+    Optional<Long> findTokenEpochById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update User u set u.tokenEpoch = u.tokenEpoch + 1 where u.id = :id")
+    int incrementTokenEpoch(@Param("id") Long id);
+
+    @Modifying
+    @Query("update User u set u.tokenEpoch = u.tokenEpoch + 1 where u.id = :id and u.status = :status")
+    int incrementTokenEpochIfStatus(@Param("id") Long id, @Param("status") UserStatus status);
 }
\ No newline at end of file
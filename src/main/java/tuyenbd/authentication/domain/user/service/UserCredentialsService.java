@@ -0,0 +1,12 @@
+package tuyenbd.authentication.domain.user.service;
+
+import tuyenbd.authentication.domain.user.model.UserCredentials;
+
+import java.util.Optional;
+
+public interface UserCredentialsService {
+
+    Optional<UserCredentials> findByEmail(String email);
+
+    void evict(String email);
+}
@@ -0,0 +1,11 @@
+package tuyenbd.authentication.domain.user.service;
+
+import tuyenbd.authentication.controller.dto.UserImportResponse;
+import tuyenbd.authentication.domain.user.model.UserImportRow;
+
+import java.util.Iterator;
+
+public interface UserImportService {
+
+    UserImportResponse importUsers(Iterator<UserImportRow> rows);
+}
@@ -1,15 +1,20 @@
 package tuyenbd.authentication.domain.user.service;
 
 import tuyenbd.authentication.controller.dto.RegisterRequest;
+import tuyenbd.authentication.controller.dto.UserPage;
+import tuyenbd.authentication.controller.dto.UserSummary;
 import tuyenbd.authentication.controller.dto.UserUpdateRequest;
 import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.model.UserFilter;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     User save(User user);
 
-    List<User> getAllUsers();
+    UserPage getUsers(UserFilter filter, Long after, Integer limit);
+
+    void exportUsers(UserFilter filter, Consumer<UserSummary> sink);
 
     User getUserById(Long id);
 
@@ -0,0 +1,112 @@
+package tuyenbd.authentication.domain.user.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.model.UserCredentials;
+import tuyenbd.authentication.domain.user.repository.UserRepository;
+import tuyenbd.authentication.domain.user.service.UserCredentialsService;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Two tiers in front of the credentials query: a memo on the current request, then a bounded Caffeine cache
+ * keyed by normalized email. Callers that change a user evict it explicitly.
+ */
+@Slf4j
+@Service
+public class UserCredentialsServiceImpl implements UserCredentialsService {
+
+    static final String CACHE_NAME = "userCredentials";
+    private static final String REQUEST_ATTRIBUTE_PREFIX = UserCredentialsServiceImpl.class.getName() + ".";
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserCredentials> credentials;
+    private final Counter requestHits;
+    private final Counter cacheHits;
+    private final Counter databaseLoads;
+
+    public UserCredentialsServiceImpl(UserRepository userRepository, MeterRegistry meterRegistry,
+                                      @Value("${application.cache.user-credentials.ttl}") Duration ttl,
+                                      @Value("${application.cache.user-credentials.maximum-size}") long maximumSize) {
+        this.userRepository = userRepository;
+        this.credentials = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        // Caffeine tier hit ratio: cache.gets{cache=userCredentials,result=hit|miss}
+        CaffeineCacheMetrics.monitor(meterRegistry, credentials, CACHE_NAME);
+        this.requestHits = lookups(meterRegistry, "request");
+        this.cacheHits = lookups(meterRegistry, "cache");
+        this.databaseLoads = lookups(meterRegistry, "database");
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("user.credentials.lookups")
+                .description("Credential lookups by the tier that answered them")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<UserCredentials> findByEmail(String email) {
+        String key = User.normalizeEmail(email);
+        if (key == null) return Optional.empty();
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        String attribute = REQUEST_ATTRIBUTE_PREFIX + key;
+        if (request != null && request.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST)
+                instanceof UserCredentials memo) {
+            requestHits.increment();
+            return Optional.of(memo);
+        }
+
+        UserCredentials found = credentials.getIfPresent(key);
+        if (found != null) {
+            cacheHits.increment();
+        } else {
+            // not Cache.get(key, loader): the loader would hold a map lock, and pin a virtual thread, for the query
+            found = userRepository.findCredentialsByEmail(key).orElse(null);
+            databaseLoads.increment();
+            if (found == null) return Optional.empty();
+            credentials.asMap().putIfAbsent(key, found);
+        }
+        if (request != null) {
+            request.setAttribute(attribute, found, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(found);
+    }
+
+    @Override
+    public void evict(String email) {
+        String key = User.normalizeEmail(email);
+        if (key == null) return;
+        credentials.invalidate(key);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + key, RequestAttributes.SCOPE_REQUEST);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a lookup racing the transaction could re-cache the old row; drop it again once the change is visible
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    credentials.invalidate(key);
+                }
+            });
+        }
+        log.debug("Evicted cached credentials for {}", key);
+    }
+}
@@ -1,21 +1,42 @@
 package tuyenbd.authentication.domain.user.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.model.UserCredentials;
 import tuyenbd.authentication.domain.user.repository.UserRepository;
+import tuyenbd.authentication.domain.user.service.UserCredentialsService;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserCredentialsService userCredentialsService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
+        return userCredentialsService.findByEmail(username)
+                .map(UserCredentials::toUser)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
+
+    @Transactional
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(User.normalizeEmail(userDetails.getUsername()))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        user.setPassword(newPassword);
+        log.info("Upgraded password hash for user ID: {}", user.getId());
+        User savedUser = userRepository.save(user);
+        userCredentialsService.evict(savedUser.getEmail());
+        return savedUser;
+    }
 }
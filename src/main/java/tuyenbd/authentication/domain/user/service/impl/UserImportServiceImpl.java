@@ -0,0 +1,282 @@
+package tuyenbd.authentication.domain.user.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tuyenbd.authentication.controller.dto.RegisterRequest;
+import tuyenbd.authentication.controller.dto.UserImportResponse;
+import tuyenbd.authentication.controller.dto.UserImportRowResult;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserImportStatus;
+import tuyenbd.authentication.domain.user.model.UserImportRow;
+import tuyenbd.authentication.domain.user.repository.UserRepository;
+import tuyenbd.authentication.domain.user.service.UserImportService;
+import tuyenbd.authentication.exception.PasswordHashingRejectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports users in chunks: one query per chunk finds emails that are already registered, passwords are hashed
+ * in parallel and the new rows are written with batched inserts in one transaction per chunk. When the
+ * password-hashing pool rejects a row, the import backs off and retries it, so a login burst slows the import
+ * down instead of failing its rows.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService, DisposableBean {
+
+    static final String IMPORTED_METRIC = "users.imported";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService hashingExecutor;
+    private final int batchSize;
+    private final int hashingRetries;
+    private final Duration hashingRetryBackoff;
+
+    public UserImportServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                 TransactionTemplate transactionTemplate, EntityManager entityManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${application.users.import.batch-size}") int batchSize,
+                                 @Value("${application.users.import.hashing-parallelism}") int hashingParallelism,
+                                 @Value("${application.users.import.hashing-retries}") int hashingRetries,
+                                 @Value("${application.users.import.hashing-retry-backoff}")
+                                 Duration hashingRetryBackoff) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.hashingRetries = hashingRetries;
+        this.hashingRetryBackoff = hashingRetryBackoff;
+        // each worker waits on the password-hashing pool, so an import never takes more than this many of its
+        // threads and logins keep the rest
+        int parallelism = hashingParallelism > 0
+                ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashingExecutor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("user-import-"));
+    }
+
+    @Override
+    public UserImportResponse importUsers(Iterator<UserImportRow> rows) {
+        List<UserImportRowResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<UserImportRow> chunk = new ArrayList<>(batchSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == batchSize) {
+                results.addAll(importChunk(chunk, seenEmails));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk, seenEmails));
+        }
+        return buildResponse(results);
+    }
+
+    private List<UserImportRowResult> importChunk(List<UserImportRow> chunk, Set<String> seenEmails) {
+        UserImportRowResult[] results = new UserImportRowResult[chunk.size()];
+        List<Integer> candidates = new ArrayList<>();
+        List<String> candidateEmails = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            UserImportRow row = chunk.get(i);
+            String email = row.request() == null ? null : User.normalizeEmail(row.request().getEmail());
+            String error = row.error() != null ? row.error() : validate(row.request(), email);
+            if (error != null) {
+                results[i] = result(row, email, UserImportStatus.INVALID, error);
+            } else if (!seenEmails.add(email)) {
+                results[i] = result(row, email, UserImportStatus.DUPLICATE, "Email appears earlier in the import");
+            } else {
+                candidates.add(i);
+                candidateEmails.add(email);
+            }
+        }
+
+        Set<String> existing = candidateEmails.isEmpty()
+                ? Set.of()
+                : userRepository.findExistingEmails(candidateEmails);
+        Map<Integer, CompletableFuture<String>> hashes = new LinkedHashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            int index = candidates.get(i);
+            String email = candidateEmails.get(i);
+            if (existing.contains(email)) {
+                results[index] = result(chunk.get(index), email, UserImportStatus.DUPLICATE,
+                        "Email already registered");
+            } else {
+                String password = chunk.get(index).request().getPassword();
+                hashes.put(index, CompletableFuture.supplyAsync(() -> encode(password), hashingExecutor));
+            }
+        }
+
+        List<Integer> inserted = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        hashes.forEach((index, hash) -> {
+            UserImportRow row = chunk.get(index);
+            try {
+                users.add(buildUser(row.request(), hash.join()));
+                inserted.add(index);
+            } catch (CompletionException e) {
+                log.warn("Hashing failed for import line {}: {}", row.line(), e.getCause().getMessage());
+                UserImportStatus status = e.getCause() instanceof PasswordHashingRejectedException
+                        ? UserImportStatus.REJECTED
+                        : UserImportStatus.FAILED;
+                results[index] = result(row, User.normalizeEmail(row.request().getEmail()), status,
+                        e.getCause().getMessage());
+            }
+        });
+        insert(chunk, inserted, users, results);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Retries with doubling backoff on this import worker, which holds back the rest of the import while logins
+     * keep the hashing pool busy.
+     */
+    private String encode(String password) {
+        Duration backoff = hashingRetryBackoff;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return passwordEncoder.encode(password);
+            } catch (PasswordHashingRejectedException e) {
+                if (attempt >= hashingRetries) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoff = backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    private void insert(List<UserImportRow> chunk, List<Integer> indexes, List<User> users,
+                        UserImportRowResult[] results) {
+        if (users.isEmpty()) return;
+        boolean batched = true;
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert of {} users failed, retrying row by row: {}", users.size(), e.getMessage());
+            batched = false;
+        } finally {
+            // imported users are not needed afterwards, keep an open-in-view persistence context from growing
+            entityManager.clear();
+        }
+        if (!batched) {
+            // an email was registered concurrently, find it row by row
+            insertOneByOne(chunk, indexes, users, results);
+            return;
+        }
+        for (int i = 0; i < users.size(); i++) {
+            results[indexes.get(i)] = created(chunk.get(indexes.get(i)), users.get(i));
+        }
+    }
+
+    private void insertOneByOne(List<UserImportRow> chunk, List<Integer> indexes, List<User> users,
+                                UserImportRowResult[] results) {
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            UserImportRow row = chunk.get(indexes.get(i));
+            user.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> userRepository.save(user));
+                results[indexes.get(i)] = created(row, user);
+            } catch (DataIntegrityViolationException e) {
+                results[indexes.get(i)] = result(row, user.getEmail(), UserImportStatus.DUPLICATE,
+                        "Email already registered");
+            }
+        }
+        entityManager.clear();
+    }
+
+    private String validate(RegisterRequest request, String email) {
+        if (email == null || email.isEmpty() || email.indexOf('@') < 1) {
+            return "Invalid email";
+        }
+        if (request.getPassword() == null || request.getPassword().isBlank()) {
+            return "Invalid password";
+        }
+        return null;
+    }
+
+    private User buildUser(RegisterRequest request, String passwordHash) {
+        return User.builder()
+                .email(User.normalizeEmail(request.getEmail()))
+                .password(passwordHash)
+                .firstname(request.getFirstname())
+                .lastname(request.getLastname())
+                .role(request.getRole() == null ? Role.USER : request.getRole())
+                .build();
+    }
+
+    private UserImportRowResult created(UserImportRow row, User user) {
+        return UserImportRowResult.builder()
+                .line(row.line())
+                .email(user.getEmail())
+                .status(UserImportStatus.CREATED)
+                .id(user.getId())
+                .build();
+    }
+
+    private UserImportRowResult result(UserImportRow row, String email, UserImportStatus status, String message) {
+        return UserImportRowResult.builder()
+                .line(row.line())
+                .email(email)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private UserImportResponse buildResponse(List<UserImportRowResult> results) {
+        Map<UserImportStatus, Integer> counts = new EnumMap<>(UserImportStatus.class);
+        results.forEach(result -> counts.merge(result.getStatus(), 1, Integer::sum));
+        counts.forEach((status, count) ->
+                meterRegistry.counter(IMPORTED_METRIC, "status", status.name()).increment(count));
+        log.info("Imported users: {}", counts);
+        return UserImportResponse.builder()
+                .created(counts.getOrDefault(UserImportStatus.CREATED, 0))
+                .duplicates(counts.getOrDefault(UserImportStatus.DUPLICATE, 0))
+                .invalid(counts.getOrDefault(UserImportStatus.INVALID, 0))
+                .rejected(counts.getOrDefault(UserImportStatus.REJECTED, 0))
+                .failed(counts.getOrDefault(UserImportStatus.FAILED, 0))
+                .rows(results)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdown();
+    }
+}
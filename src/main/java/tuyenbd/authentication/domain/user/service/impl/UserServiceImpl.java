@@ -2,45 +2,85 @@ package tuyenbd.authentication.domain.user.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tuyenbd.authentication.config.CacheConfig;
 import tuyenbd.authentication.controller.dto.RegisterRequest;
+import tuyenbd.authentication.controller.dto.UserPage;
+import tuyenbd.authentication.controller.dto.UserSummary;
 import tuyenbd.authentication.controller.dto.UserUpdateRequest;
+import tuyenbd.authentication.domain.auth.model.TokenPrincipal;
 import tuyenbd.authentication.domain.auth.service.TokenService;
 import tuyenbd.authentication.domain.user.entity.User;
 import tuyenbd.authentication.domain.user.enums.UserStatus;
+import tuyenbd.authentication.domain.user.model.UserFilter;
 import tuyenbd.authentication.domain.user.repository.UserRepository;
+import tuyenbd.authentication.domain.user.service.UserCredentialsService;
 import tuyenbd.authentication.domain.user.service.UserService;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
-@Service
+@Service("userService")
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final TokenService tokenService;
+    private final CacheManager cacheManager;
+    private final UserCredentialsService userCredentialsService;
+
+    @Value("${application.users.page.default-size}")
+    private int defaultPageSize;
+    @Value("${application.users.page.max-size}")
+    private int maxPageSize;
 
     @Override
     public User save(User user) {
         log.debug("Saving user: {}", user.getEmail());
         User savedUser = userRepository.save(user);
+        userCredentialsService.evict(savedUser.getEmail());
         log.info("Successfully saved user with ID: {}", savedUser.getId());
         return savedUser;
     }
 
     @Override
-    public List<User> getAllUsers() {
-        log.debug("Fetching all users");
-        List<User> users = userRepository.findAll();
-        log.debug("Found {} users", users.size());
-        return users;
+    public UserPage getUsers(UserFilter filter, Long after, Integer limit) {
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        log.debug("Fetching {} users after ID: {}", size, after);
+        // one extra row tells whether there is a next page without a count query
+        List<UserSummary> users = userRepository.findSummariesAfter(after == null ? 0L : after, filter.role(),
+                filter.status(), filter.createdFrom(), filter.createdTo(), PageRequest.ofSize(size + 1));
+        Long nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextCursor = users.get(size - 1).getId();
+        }
+        return UserPage.builder()
+                .items(users)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportUsers(UserFilter filter, Consumer<UserSummary> sink) {
+        log.debug("Exporting users");
+        try (Stream<UserSummary> users = userRepository.streamSummaries(filter.role(), filter.status(),
+                filter.createdFrom(), filter.createdTo())) {
+            users.forEach(sink);
+        }
     }
 
     @Override
@@ -59,6 +99,7 @@ public class UserServiceImpl implements UserService {
         User user = getUserById(id);
         updateUserFields(user, request);
         User updatedUser = userRepository.save(user);
+        userCredentialsService.evict(updatedUser.getEmail());
         log.info("Successfully updated user with ID: {}", id);
         return updatedUser;
     }
@@ -76,20 +117,41 @@ public class UserServiceImpl implements UserService {
     private void inactiveUser(User user) {
         user.setStatus(UserStatus.INACTIVE);
         userRepository.save(user);
+        userCredentialsService.evict(user.getEmail());
     }
 
     @Override
     public boolean isCurrentUser(Long userId) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = userRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("Current user not found"));
-        return currentUser.getId().equals(userId);
+        if (userId == null || auth == null || !auth.isAuthenticated()) {
+            return false;
+        }
+        // JwtAuthenticationFilter puts the token principal, or a user built from the token claims, into the context
+        if (auth.getPrincipal() instanceof User currentUser && currentUser.getId() != null) {
+            return userId.equals(currentUser.getId());
+        }
+        if (auth.getPrincipal() instanceof TokenPrincipal token) {
+            return userId.equals(token.userId());
+        }
+        return userId.equals(getUserIdByEmail(auth.getName()));
+    }
+
+    private Long getUserIdByEmail(String email) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_ID_CACHE);
+        Long userId = cache == null ? null : cache.get(email, Long.class);
+        if (userId == null) {
+            userId = userRepository.findIdByEmail(User.normalizeEmail(email)).orElse(null);
+            if (userId != null && cache != null) {
+                cache.put(email, userId);
+            }
+        }
+        return userId;
     }
 
     @Override
     public User getUserByEmail(String email) {
         log.debug("Fetching user by email: {}", email);
-        return userRepository.findByEmail(email)
+        return userRepository.findByEmail(User.normalizeEmail(email))
                 .orElseThrow(() -> {
                     log.warn("User not found with email: {}", email);
                     return new UsernameNotFoundException("User not found");
@@ -98,7 +160,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public boolean existsByEmail(String email) {
-        return userRepository.findByEmail(email).isPresent();
+        return userRepository.existsByEmail(User.normalizeEmail(email));
     }
 
     @Override
@@ -131,7 +193,7 @@ public class UserServiceImpl implements UserService {
 
     private User buildNewUser(RegisterRequest request) {
         return User.builder()
-                .email(request.getEmail())
+                .email(User.normalizeEmail(request.getEmail()))
                 .password(passwordEncoder.encode(request.getPassword()))
                 .firstname(request.getFirstname())
                 .lastname(request.getLastname())
@@ -0,0 +1,7 @@
+package tuyenbd.authentication.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import tuyenbd.authentication.exception.PasswordHashingRejectedException;
 import tuyenbd.authentication.exception.TokenNotFoundException;
 
 import java.util.Map;
@@ -30,6 +31,12 @@ public class BaseExceptionHandler {
         return handleException(ex, HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<?> handleTooManyRequests(PasswordHashingRejectedException ex, WebRequest request) {
+        log.warn("Password hashing rejected: {}", ex.getMessage());
+        return new ResponseEntity<>(buildError(ex, HttpStatus.TOO_MANY_REQUESTS), HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     private ResponseEntity<Map<String, Object>> handleException(Exception ex, HttpStatus httpStatus) {
         log.error("handle error ", ex);
         return new ResponseEntity<>(buildError(ex, httpStatus), httpStatus);
@@ -0,0 +1,6 @@
+-- Backfills tokens.token_hash for rows written before the column existed.
+-- Run once after deploying; lookups only go through token_hash, so unfilled rows are treated as unknown tokens.
+UPDATE tokens
+SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex')
+WHERE token_hash IS NULL
+  AND token IS NOT NULL;
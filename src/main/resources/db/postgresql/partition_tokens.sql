@@ -0,0 +1,35 @@
+-- Converts tokens into a table range-partitioned by month on created_at.
+-- Run once in a maintenance window, then set application.token-retention.partitioning.enabled=true
+-- so upcoming partitions are created ahead of time and fully expired ones are dropped.
+-- PostgreSQL requires the partition key in every unique constraint, so id and token_hash are unique per partition only;
+-- both are still unique in practice (sequence ids, SHA-256 digests).
+BEGIN;
+
+ALTER TABLE tokens RENAME TO tokens_unpartitioned;
+
+CREATE TABLE tokens (LIKE tokens_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+UPDATE tokens_unpartitioned SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL;
+ALTER TABLE tokens ALTER COLUMN created_at SET NOT NULL;
+
+DO $$
+DECLARE
+    month date := date_trunc('month', COALESCE((SELECT min(created_at) FROM tokens_unpartitioned), now()));
+BEGIN
+    WHILE month <= date_trunc('month', now()) + interval '2 months' LOOP
+        EXECUTE format('CREATE TABLE tokens_p%s PARTITION OF tokens FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month, 'YYYYMM'), month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO tokens SELECT * FROM tokens_unpartitioned;
+DROP TABLE tokens_unpartitioned;
+
+ALTER TABLE tokens ADD PRIMARY KEY (id, created_at);
+ALTER TABLE tokens ADD CONSTRAINT fk_tokens_user FOREIGN KEY (user_id) REFERENCES users (id);
+CREATE UNIQUE INDEX idx_tokens_token_hash ON tokens (token_hash, created_at);
+CREATE INDEX idx_tokens_user_id_status ON tokens (user_id, status);
+CREATE INDEX idx_tokens_created_at ON tokens (created_at);
+CREATE INDEX idx_tokens_status_updated_at ON tokens (status, updated_at);
+
+COMMIT;
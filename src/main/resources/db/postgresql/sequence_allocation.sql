@@ -0,0 +1,4 @@
+-- users_seq and tokens_seq must step by application.id.allocation-size (spring.jpa.properties); Hibernate refuses to
+-- start when the increments differ. Run after changing the setting, with the new value in place of 50.
+ALTER SEQUENCE users_seq INCREMENT BY 50;
+ALTER SEQUENCE tokens_seq INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- Adds the unique rotation slot that lets only one instance insert the next ES256 signing key.
+-- ddl-auto=update adds the column on its own; run this where schema updates are disabled. Existing rows keep NULL.
+ALTER TABLE signing_keys ADD COLUMN IF NOT EXISTS rotation_slot bigint;
+CREATE UNIQUE INDEX IF NOT EXISTS signing_keys_rotation_slot_key ON signing_keys (rotation_slot);
@@ -0,0 +1,8 @@
+-- Normalizes stored emails to the form written by User.normalizeEmail and adds the unique index declared on User.
+-- ddl-auto=update creates the index on fresh schemas only. Resolve addresses that differ only by case first:
+--   SELECT lower(trim(email)), count(*) FROM users GROUP BY lower(trim(email)) HAVING count(*) > 1;
+UPDATE users
+SET email = lower(trim(email))
+WHERE email <> lower(trim(email));
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email ON users (email);
@@ -0,0 +1,2 @@
+-- ddl-auto=update does not alter existing columns; ES256 tokens with a kid header exceed 255 chars.
+ALTER TABLE tokens ALTER COLUMN token TYPE varchar(2048);
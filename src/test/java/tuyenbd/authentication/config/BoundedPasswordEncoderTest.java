@@ -0,0 +1,91 @@
+package tuyenbd.authentication.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import tuyenbd.authentication.exception.PasswordHashingRejectedException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void matches_ShouldRunOnExecutorAndRecordLatency() {
+        // Given
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PlainEncoder(), executor,
+                Duration.ofSeconds(5), meterRegistry);
+
+        // When
+        boolean matches = encoder.matches("secret", "secret");
+
+        // Then
+        assertTrue(matches);
+        assertEquals(1, meterRegistry.timer(BoundedPasswordEncoder.HASHING_TIMER, "operation", "matches").count());
+    }
+
+    @Test
+    void encode_WhenPoolAndQueueAreFull_ShouldRejectImmediately() {
+        // Given
+        executor.submit(this::awaitRelease);
+        executor.submit(this::awaitRelease);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PlainEncoder(), executor,
+                Duration.ofSeconds(5), meterRegistry);
+
+        // When/Then
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("secret"));
+        assertEquals(1, meterRegistry.counter(BoundedPasswordEncoder.REJECTED_METRIC).count());
+    }
+
+    @Test
+    void matches_WhenWaitingLongerThanTimeout_ShouldReject() {
+        // Given
+        executor.submit(this::awaitRelease);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PlainEncoder(), executor,
+                Duration.ofMillis(50), meterRegistry);
+
+        // When/Then
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.matches("secret", "secret"));
+        assertEquals(1, meterRegistry.counter(BoundedPasswordEncoder.REJECTED_METRIC).count());
+    }
+
+    private Void awaitRelease() throws InterruptedException {
+        release.await();
+        return null;
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
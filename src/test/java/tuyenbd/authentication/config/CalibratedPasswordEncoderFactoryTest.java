@@ -0,0 +1,70 @@
+package tuyenbd.authentication.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalibratedPasswordEncoderFactoryTest {
+
+    private final CalibratedPasswordEncoderFactory factory = new CalibratedPasswordEncoderFactory();
+
+    @Test
+    void create_ShouldEncodeWithConfiguredAlgorithmId() {
+        // Given
+        PasswordEncoder encoder = factory.create(CalibratedPasswordEncoderFactory.PBKDF2, Duration.ofMillis(50), false);
+
+        // When
+        String encoded = encoder.encode("password");
+
+        // Then
+        assertTrue(encoded.startsWith("{pbkdf2}"));
+        assertTrue(encoder.matches("password", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+    }
+
+    @Test
+    void create_ShouldMatchAndUpgradeLegacyBcryptHashes() {
+        // Given
+        PasswordEncoder encoder = factory.create(CalibratedPasswordEncoderFactory.BCRYPT, Duration.ofMillis(50), false);
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+        // When/Then
+        assertTrue(encoder.matches("password", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + legacy));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+    }
+
+    @Test
+    void create_WhenSwitchingAlgorithm_ShouldStillMatchAndUpgradeOldHashes() {
+        // Given
+        String bcryptHash = factory.create(CalibratedPasswordEncoderFactory.BCRYPT, Duration.ofMillis(50), false)
+                .encode("password");
+        PasswordEncoder encoder = factory.create(CalibratedPasswordEncoderFactory.PBKDF2, Duration.ofMillis(50), false);
+
+        // When/Then
+        assertTrue(encoder.matches("password", bcryptHash));
+        assertTrue(encoder.upgradeEncoding(bcryptHash));
+    }
+
+    @Test
+    void create_WithTinyTargetLatency_ShouldNotGoBelowDefaultCost() {
+        // Given
+        PasswordEncoder encoder = factory.create(CalibratedPasswordEncoderFactory.BCRYPT, Duration.ofNanos(1), true);
+
+        // When
+        String encoded = encoder.encode("password");
+
+        // Then
+        assertTrue(encoded.startsWith("{bcrypt}$2a$10$"));
+    }
+
+    @Test
+    void create_WithUnknownAlgorithm_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> factory.create("md5", Duration.ofMillis(50), false));
+    }
+}
@@ -0,0 +1,207 @@
+package tuyenbd.authentication.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tuyenbd.authentication.domain.auth.enums.TokenStatus;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
+import tuyenbd.authentication.domain.auth.model.TokenPrincipal;
+import tuyenbd.authentication.domain.auth.service.JwtService;
+import tuyenbd.authentication.domain.auth.service.TokenEpochService;
+import tuyenbd.authentication.domain.auth.service.TokenRevocationService;
+import tuyenbd.authentication.domain.auth.service.TokenService;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(tokenService, jwtService, tokenRevocationService, tokenEpochService,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_OnPublicRouteWithBearerToken_ShouldSkipTokenResolution() throws Exception {
+        // Given
+        MockHttpServletRequest request = bearerRequest("POST", "/api/v1/auth/token/validate");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Then
+        verify(filterChain).doFilter(any(), any());
+        verifyNoInteractions(tokenService, jwtService, tokenRevocationService);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1.0, meterRegistry.counter(JwtAuthenticationFilter.SKIPPED_METRIC).count());
+    }
+
+    @Test
+    void doFilter_OnRegistrationWithoutToken_ShouldSkipWithoutCounting() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/users");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Then
+        verify(filterChain).doFilter(any(), any());
+        assertEquals(0.0, meterRegistry.counter(JwtAuthenticationFilter.SKIPPED_METRIC).count());
+    }
+
+    @Test
+    void doFilter_OnProtectedUsersRoute_ShouldAuthenticateWithTokenPrincipal() throws Exception {
+        // Given
+        MockHttpServletRequest request = bearerRequest("GET", "/api/v1/users");
+        TokenPrincipal principal = new TokenPrincipal("hash", TokenType.ACCESS, TokenStatus.ACTIVE, 0L, 1L,
+                "admin@example.com", Role.ADMIN, UserStatus.ACTIVE).withExpiresAt(Instant.now().plusSeconds(60));
+        when(tokenService.getToken("access.token", TokenType.ACCESS)).thenReturn(principal);
+        when(tokenService.isTokenValid(principal)).thenReturn(true);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Then
+        assertSame(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertEquals(0.0, meterRegistry.counter(JwtAuthenticationFilter.SKIPPED_METRIC).count());
+    }
+
+    @Test
+    void doFilter_WhenRevocationFilterMisses_ShouldAuthenticateFromClaimsWithoutDatabase() throws Exception {
+        // Given
+        MockHttpServletRequest request = bearerRequest("GET", "/api/v1/users");
+        when(tokenRevocationService.isEnabled()).thenReturn(true);
+        when(tokenRevocationService.mightBeRevoked("access.token")).thenReturn(false);
+        when(jwtService.parseAndVerify("access.token")).thenReturn(claims(3L));
+        when(tokenEpochService.isCurrent(1L, 3L)).thenReturn(true);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Then
+        User principal = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals(1L, principal.getId());
+        assertEquals("admin@example.com", principal.getUsername());
+        assertEquals(Role.ADMIN, principal.getRole());
+        verifyNoInteractions(tokenService);
+    }
+
+    @Test
+    void doFilter_WhenRevocationFilterMatches_ShouldFallBackToDatabase() throws Exception {
+        // Given
+        MockHttpServletRequest request = bearerRequest("GET", "/api/v1/users");
+        when(tokenRevocationService.isEnabled()).thenReturn(true);
+        when(tokenRevocationService.mightBeRevoked("access.token")).thenReturn(true);
+        TokenPrincipal principal = new TokenPrincipal("hash", TokenType.ACCESS, TokenStatus.INACTIVE, 3L, 1L,
+                "admin@example.com", Role.ADMIN, UserStatus.ACTIVE).withExpiresAt(Instant.now().plusSeconds(60));
+        when(tokenService.getToken("access.token", TokenType.ACCESS)).thenReturn(principal);
+        when(tokenService.isTokenValid(principal)).thenReturn(false);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(tokenService).getToken("access.token", TokenType.ACCESS);
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void doFilter_WhenEpochWasAdvanced_ShouldNotAuthenticate() throws Exception {
+        // Given
+        MockHttpServletRequest request = bearerRequest("GET", "/api/v1/users");
+        when(tokenRevocationService.isEnabled()).thenReturn(true);
+        when(tokenRevocationService.mightBeRevoked("access.token")).thenReturn(false);
+        when(jwtService.parseAndVerify("access.token")).thenReturn(claims(3L));
+        when(tokenEpochService.isCurrent(1L, 3L)).thenReturn(false);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(tokenService);
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_WithTokenWithoutEpochClaim_ShouldUseDatabase() throws Exception {
+        // Given
+        // issued before the stateless claims existed
+        MockHttpServletRequest request = bearerRequest("GET", "/api/v1/users");
+        when(tokenRevocationService.isEnabled()).thenReturn(true);
+        when(tokenRevocationService.mightBeRevoked("access.token")).thenReturn(false);
+        when(jwtService.parseAndVerify("access.token")).thenReturn(claims(null));
+        TokenPrincipal principal = new TokenPrincipal("hash", TokenType.ACCESS, TokenStatus.ACTIVE, null, 1L,
+                "admin@example.com", Role.ADMIN, UserStatus.ACTIVE).withExpiresAt(Instant.now().plusSeconds(60));
+        when(tokenService.getToken("access.token", TokenType.ACCESS)).thenReturn(principal);
+        when(tokenService.isTokenValid(principal)).thenReturn(true);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Then
+        assertSame(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(tokenEpochService, never()).isCurrent(any(), any());
+    }
+
+    private JwtClaims claims(Long tokenEpoch) {
+        Claims claims = Jwts.claims().setSubject("admin@example.com");
+        claims.put(JwtService.USER_ID_CLAIM, 1L);
+        claims.put(JwtService.ROLE_CLAIM, Role.ADMIN.name());
+        claims.put(JwtService.TOKEN_TYPE_CLAIM, TokenType.ACCESS.name());
+        if (tokenEpoch != null) {
+            claims.put(JwtService.TOKEN_EPOCH_CLAIM, tokenEpoch);
+        }
+        return new JwtClaims(claims);
+    }
+
+    private MockHttpServletRequest bearerRequest(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setServletPath(uri);
+        request.addHeader("Authorization", "Bearer access.token");
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package tuyenbd.authentication.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tuyenbd.authentication.domain.auth.enums.TokenStatus;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.TokenPrincipal;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenCacheExpiryTest {
+
+    private static final Duration MAX_TTL = Duration.ofMinutes(15);
+    private static final Duration EXPIRED_TTL = Duration.ofSeconds(30);
+
+    private TokenCacheExpiry expiry;
+
+    @BeforeEach
+    void setUp() {
+        expiry = new TokenCacheExpiry(MAX_TTL, EXPIRED_TTL);
+    }
+
+    @Test
+    void expireAfterCreate_WithLongLivedToken_ShouldBeCappedByMaxTtl() {
+        // Given
+        TokenPrincipal token = principalExpiringIn(Duration.ofDays(1));
+
+        // When
+        long ttl = expiry.expireAfterCreate("key", token, 0);
+
+        // Then
+        assertEquals(MAX_TTL.toNanos(), ttl);
+    }
+
+    @Test
+    void expireAfterCreate_WithTokenExpiringSoon_ShouldFollowJwtExpiration() {
+        // Given
+        TokenPrincipal token = principalExpiringIn(Duration.ofMinutes(1));
+
+        // When
+        long ttl = expiry.expireAfterCreate("key", token, 0);
+
+        // Then
+        assertTrue(ttl > 0);
+        assertTrue(ttl <= TimeUnit.MINUTES.toNanos(1));
+    }
+
+    @Test
+    void expireAfterCreate_WithExpiredToken_ShouldBeKeptForExpiredTtl() {
+        // Given
+        TokenPrincipal token = principalExpiringIn(Duration.ofMinutes(-1));
+
+        // When
+        long ttl = expiry.expireAfterCreate("key", token, 0);
+
+        // Then
+        assertEquals(EXPIRED_TTL.toNanos(), ttl);
+    }
+
+    @Test
+    void expireAfterCreate_WithoutExpiry_ShouldExpireImmediately() {
+        // Given
+        TokenPrincipal token = principalExpiringIn(Duration.ZERO).withExpiresAt(null);
+
+        // When
+        long ttl = expiry.expireAfterCreate("key", token, 0);
+
+        // Then
+        assertEquals(0, ttl);
+    }
+
+    @Test
+    void expireAfterRead_ShouldKeepCurrentDuration() {
+        assertEquals(42L, expiry.expireAfterRead("key", principalExpiringIn(Duration.ofMinutes(1)), 0, 42L));
+    }
+
+    private TokenPrincipal principalExpiringIn(Duration duration) {
+        return new TokenPrincipal("hash", TokenType.ACCESS, TokenStatus.ACTIVE, 0L, 1L, "test@example.com",
+                Role.USER, UserStatus.ACTIVE).withExpiresAt(Instant.now().plus(duration));
+    }
+}
@@ -8,11 +8,14 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
 import tuyenbd.authentication.controller.dto.AuthenticationRequest;
 import tuyenbd.authentication.controller.dto.AuthenticationResponse;
+import tuyenbd.authentication.controller.dto.TokenBatchRequest;
 import tuyenbd.authentication.controller.dto.TokenRequest;
 import tuyenbd.authentication.controller.dto.TokenValidationResponse;
 import tuyenbd.authentication.domain.auth.service.AuthenticationService;
 import tuyenbd.authentication.domain.auth.service.TokenService;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.*;
@@ -84,6 +87,23 @@ class AuthenticationControllerTest {
         verify(tokenService).validateToken(request);
     }
 
+    @Test
+    void validateTokens_ShouldReturnValidationResponses() {
+        // Given
+        TokenBatchRequest request = new TokenBatchRequest(List.of("token1", "token2"));
+        List<TokenValidationResponse> expectedResponse = List.of(new TokenValidationResponse(), new TokenValidationResponse());
+        when(tokenService.validateTokens(request.getTokens())).thenReturn(expectedResponse);
+
+        // When
+        ResponseEntity<List<TokenValidationResponse>> response = controller.validateTokens(request);
+
+        // Then
+        assertNotNull(response);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(expectedResponse, response.getBody());
+        verify(tokenService).validateTokens(request.getTokens());
+    }
+
     @Test
     void disableToken_ShouldReturnOkResponse() {
         // Given
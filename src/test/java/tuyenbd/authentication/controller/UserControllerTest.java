@@ -1,21 +1,33 @@
 package tuyenbd.authentication.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tuyenbd.authentication.controller.dto.RegisterRequest;
+import tuyenbd.authentication.controller.dto.UserPage;
+import tuyenbd.authentication.controller.dto.UserSummary;
 import tuyenbd.authentication.controller.dto.UserUpdateRequest;
 import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.model.UserFilter;
 import tuyenbd.authentication.domain.user.service.UserService;
 
-import java.util.Arrays;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class UserControllerTest {
@@ -23,6 +35,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private UserController controller;
 
@@ -32,22 +47,46 @@ class UserControllerTest {
     }
 
     @Test
-    void getAllUsers_ShouldReturnListOfUsers() {
+    void getUsers_ShouldReturnPage() {
         // Given
-        List<User> expectedUsers = Arrays.asList(
-            new User(),
-            new User()
-        );
-        when(userService.getAllUsers()).thenReturn(expectedUsers);
+        UserFilter filter = UserFilter.none();
+        UserPage expectedPage = UserPage.builder()
+                .items(List.of(UserSummary.builder().id(1L).build()))
+                .nextCursor(1L)
+                .build();
+        when(userService.getUsers(filter, null, 1)).thenReturn(expectedPage);
 
         // When
-        ResponseEntity<List<User>> response = controller.getAllUsers();
+        ResponseEntity<UserPage> response = controller.getUsers(filter, null, 1);
 
         // Then
         assertNotNull(response);
         assertEquals(200, response.getStatusCode().value());
-        assertEquals(expectedUsers, response.getBody());
-        verify(userService).getAllUsers();
+        assertEquals(expectedPage, response.getBody());
+        verify(userService).getUsers(filter, null, 1);
+    }
+
+    @Test
+    void exportUsers_ShouldWriteOneJsonDocumentPerLine() throws IOException {
+        // Given
+        UserFilter filter = UserFilter.none();
+        doAnswer(invocation -> {
+            Consumer<UserSummary> sink = invocation.getArgument(1);
+            sink.accept(UserSummary.builder().id(1L).email("a@example.com").role(Role.USER).build());
+            sink.accept(UserSummary.builder().id(2L).email("b@example.com").role(Role.ADMIN).build());
+            return null;
+        }).when(userService).exportUsers(eq(filter), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = controller.exportUsers(filter);
+        response.getBody().writeTo(out);
+
+        // Then
+        assertEquals(UserController.NDJSON, response.getHeaders().getContentType().toString());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readValue(lines[1], UserSummary.class).getId());
     }
 
     @Test
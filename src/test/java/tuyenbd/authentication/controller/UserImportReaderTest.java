@@ -0,0 +1,86 @@
+package tuyenbd.authentication.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.model.UserImportRow;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportReaderTest {
+
+    @Test
+    void csv_ShouldMapColumnsByHeaderName() throws IOException {
+        // Given
+        String body = """
+                Role,Email,Password,firstname
+                ADMIN,a@example.com,"pa,ss""word",Ann
+
+                ,b@example.com,secret,Bob
+                """;
+
+        // When
+        List<UserImportRow> rows = readAll(UserImportReader.csv(stream(body)));
+
+        // Then
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("pa,ss\"word", rows.get(0).request().getPassword());
+        assertEquals(Role.ADMIN, rows.get(0).request().getRole());
+        assertEquals(4, rows.get(1).line());
+        assertEquals("Bob", rows.get(1).request().getFirstname());
+        assertNull(rows.get(1).request().getRole());
+    }
+
+    @Test
+    void csv_WithBadLine_ShouldReturnInvalidRow() throws IOException {
+        // Given
+        String body = "email,password,role\na@example.com,secret,ROOT\nb@example.com,\"unterminated\n";
+
+        // When
+        List<UserImportRow> rows = readAll(UserImportReader.csv(stream(body)));
+
+        // Then
+        assertEquals("Unknown role", rows.get(0).error());
+        assertEquals("Unterminated quoted field", rows.get(1).error());
+    }
+
+    @Test
+    void csv_WithoutRequiredColumns_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> UserImportReader.csv(stream("email,name\n")));
+    }
+
+    @Test
+    void ndjson_ShouldReadOneRequestPerLine() {
+        // Given
+        String body = """
+                {"email":"a@example.com","password":"secret","role":"USER"}
+                {"email":
+                """;
+
+        // When
+        List<UserImportRow> rows = readAll(UserImportReader.ndjson(stream(body), new ObjectMapper()));
+
+        // Then
+        assertEquals("a@example.com", rows.get(0).request().getEmail());
+        assertNull(rows.get(1).request());
+        assertNotNull(rows.get(1).error());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<UserImportRow> readAll(UserImportReader reader) {
+        List<UserImportRow> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+}
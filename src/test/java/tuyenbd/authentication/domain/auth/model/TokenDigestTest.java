@@ -0,0 +1,18 @@
+package tuyenbd.authentication.domain.auth.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenDigestTest {
+
+    @Test
+    void of_ShouldReturnFixedWidthSha256Hex() {
+        // When
+        String digest = TokenDigest.of("abc");
+
+        // Then
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", digest);
+        assertEquals(TokenDigest.LENGTH, TokenDigest.of("a.much.longer.jwt.value.than.the.digest.itself").length());
+    }
+}
@@ -13,9 +13,9 @@ import tuyenbd.authentication.controller.dto.AuthenticationRequest;
 import tuyenbd.authentication.controller.dto.AuthenticationResponse;
 import tuyenbd.authentication.domain.auth.service.TokenService;
 import tuyenbd.authentication.domain.user.entity.User;
-import tuyenbd.authentication.domain.user.repository.UserRepository;
+import tuyenbd.authentication.domain.user.service.UserService;
 
-import java.util.Optional;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,7 +24,7 @@ import static org.mockito.Mockito.*;
 class AuthenticationServiceImplTest {
 
     @Mock
-    private UserRepository userRepository;
+    private UserService userService;
 
     @Mock
     private TokenService tokenService;
@@ -55,7 +55,8 @@ class AuthenticationServiceImplTest {
     @Test
     void login_WithValidCredentials_ShouldReturnAuthenticationResponse() {
         // Given
-        when(userRepository.findByEmail(validRequest.getEmail())).thenReturn(Optional.of(validUser));
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(validUser, null, List.of()));
         when(tokenService.createToken(validUser)).thenReturn(expectedResponse);
 
         // When
@@ -68,7 +69,7 @@ class AuthenticationServiceImplTest {
         verify(authenticationManager).authenticate(
                 new UsernamePasswordAuthenticationToken(validRequest.getEmail(), validRequest.getPassword())
         );
-        verify(userRepository).findByEmail(validRequest.getEmail());
+        verifyNoInteractions(userService);
         verify(tokenService).createToken(validUser);
     }
 
@@ -81,7 +82,7 @@ class AuthenticationServiceImplTest {
         // When/Then
         assertThrows(BadCredentialsException.class,
                 () -> authenticationService.login(validRequest));
-        verify(userRepository, never()).findByEmail(any());
+        verifyNoInteractions(userService);
         verify(tokenService, never()).createToken(any());
     }
 
@@ -89,7 +90,8 @@ class AuthenticationServiceImplTest {
     void login_WithNonExistentUser_ShouldThrowUsernameNotFoundException() {
         // Given
         when(authenticationManager.authenticate(any())).thenReturn(null);
-        when(userRepository.findByEmail(validRequest.getEmail())).thenReturn(Optional.empty());
+        when(userService.getUserByEmail(validRequest.getEmail()))
+                .thenThrow(new UsernameNotFoundException("User not found"));
 
         // When/Then
         assertThrows(UsernameNotFoundException.class,
@@ -105,7 +107,7 @@ class AuthenticationServiceImplTest {
         // When/Then
         assertThrows(IllegalArgumentException.class,
                 () -> authenticationService.login(requestWithNullEmail));
-        verifyNoInteractions(userRepository, tokenService);
+        verifyNoInteractions(userService, tokenService);
     }
 
     @Test
@@ -116,7 +118,7 @@ class AuthenticationServiceImplTest {
         // When/Then
         assertThrows(IllegalArgumentException.class,
                 () -> authenticationService.login(requestWithNullPassword));
-        verifyNoInteractions(userRepository, tokenService);
+        verifyNoInteractions(userService, tokenService);
     }
 
     @Test
@@ -127,7 +129,7 @@ class AuthenticationServiceImplTest {
         // When/Then
         assertThrows(IllegalArgumentException.class,
                 () -> authenticationService.login(requestWithEmptyEmail));
-        verifyNoInteractions(userRepository, tokenService);
+        verifyNoInteractions(userService, tokenService);
     }
 
     @Test
@@ -138,7 +140,7 @@ class AuthenticationServiceImplTest {
         // When/Then
         assertThrows(IllegalArgumentException.class,
                 () -> authenticationService.login(requestWithEmptyPassword));
-        verifyNoInteractions(userRepository, tokenService);
+        verifyNoInteractions(userService, tokenService);
     }
 
     @Test
@@ -0,0 +1,78 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
+import tuyenbd.authentication.domain.auth.service.JwtService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BatchJwtVerifierTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    private BatchJwtVerifier batchJwtVerifier;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        batchJwtVerifier = new BatchJwtVerifier(jwtService, new SimpleMeterRegistry(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchJwtVerifier.destroy();
+    }
+
+    @Test
+    void verifyAll_ShouldVerifyChunksConcurrently() {
+        // Given
+        // every check waits for a second thread to be verifying too, a sequential verifier would time out
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(jwtService.parseAndVerify(anyString())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            barrier.await(5, TimeUnit.SECONDS);
+            return new JwtClaims(Jwts.claims().setSubject(invocation.getArgument(0)));
+        });
+        List<String> jwts = IntStream.range(0, 64).mapToObj(i -> "token." + i).toList();
+
+        // When
+        Map<String, JwtClaims> verified = batchJwtVerifier.verifyAll(jwts);
+
+        // Then
+        assertEquals(64, verified.size());
+        assertEquals(2, threads.size());
+        assertTrue(threads.stream().anyMatch(name -> name.startsWith("jwt-verify-")));
+    }
+
+    @Test
+    void verifyAll_ShouldLeaveOutTokensThatDoNotVerify() {
+        // Given
+        when(jwtService.parseAndVerify("good.token")).thenReturn(new JwtClaims(Jwts.claims().setSubject("good")));
+        when(jwtService.parseAndVerify("forged.token")).thenThrow(new SignatureException("bad signature"));
+
+        // When
+        Map<String, JwtClaims> verified = batchJwtVerifier.verifyAll(List.of("good.token", "forged.token"));
+
+        // Then
+        assertEquals(Set.of("good.token"), verified.keySet());
+    }
+}
@@ -0,0 +1,249 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import tuyenbd.authentication.domain.auth.entity.SigningKey;
+import tuyenbd.authentication.domain.auth.repository.SigningKeyRepository;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EcSigningKeyServiceImplTest {
+
+    private static final String KEY_ENCRYPTION_KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Mock
+    private SigningKeyRepository signingKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<SigningKey> storedKeys = new ArrayList<>();
+    private EcSigningKeyServiceImpl signingKeyService;
+    private JwtServiceImpl jwtService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(signingKeyRepository.saveAndFlush(any(SigningKey.class))).thenAnswer(invocation -> {
+            SigningKey key = invocation.getArgument(0);
+            if (storedKeys.stream().anyMatch(stored -> stored.getRotationSlot().equals(key.getRotationSlot()))) {
+                throw new DataIntegrityViolationException("duplicate rotation_slot");
+            }
+            storedKeys.add(key);
+            return key;
+        });
+        when(signingKeyRepository.findAllByAlgorithmAndCreatedAtAfterOrderByCreatedAtDesc(any(), any()))
+                .thenAnswer(invocation -> storedKeys.stream()
+                        .sorted(Comparator.comparing(SigningKey::getCreatedAt).reversed())
+                        .toList());
+
+        signingKeyService = new EcSigningKeyServiceImpl(signingKeyRepository, objectMapper);
+        ReflectionTestUtils.setField(signingKeyService, "rotationInterval", Duration.ofDays(7));
+        ReflectionTestUtils.setField(signingKeyService, "reloadInterval", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(signingKeyService, "minReloadInterval", Duration.ZERO);
+        ReflectionTestUtils.setField(signingKeyService, "jwksMaxAge", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(signingKeyService, "refreshExpiration", 604800000L);
+        ReflectionTestUtils.setField(signingKeyService, "keyEncryptionKey", KEY_ENCRYPTION_KEY);
+        signingKeyService.init();
+
+        jwtService = new JwtServiceImpl(signingKeyService);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 604800000L);
+        jwtService.init();
+    }
+
+    @Test
+    void init_WithoutKeys_ShouldCreateSigningKey() {
+        assertEquals(1, storedKeys.size());
+        assertEquals(storedKeys.get(0).getKid(), signingKeyService.signingKey().kid());
+    }
+
+    @Test
+    void generateToken_ShouldSignWithEs256AndKid() {
+        // Given
+        User user = User.builder().id(1L).email("test@example.com").role(Role.USER).build();
+
+        // When
+        String token = jwtService.generateToken(user);
+
+        // Then
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        assertTrue(header.contains("\"alg\":\"ES256\""));
+        assertTrue(header.contains("\"kid\":\"" + signingKeyService.signingKey().kid() + "\""));
+        assertTrue(jwtService.isTokenValid(token, user));
+    }
+
+    @Test
+    void rotate_ShouldKeepVerifyingTokensSignedWithPreviousKey() {
+        // Given
+        User user = User.builder().id(1L).email("test@example.com").role(Role.USER).build();
+        String oldToken = jwtService.generateToken(user);
+        age(storedKeys.get(0));
+
+        // When
+        signingKeyService.refresh();
+
+        // Then
+        assertEquals(2, storedKeys.size());
+        assertTrue(jwtService.isTokenValid(oldToken, user));
+        activate(storedKeys.get(1));
+        assertNotEquals(storedKeys.get(0).getKid(), signingKeyService.signingKey().kid());
+        assertTrue(jwtService.isTokenValid(oldToken, user));
+        assertTrue(jwtService.isTokenValid(jwtService.generateToken(user), user));
+    }
+
+    @Test
+    void rotate_ShouldPublishNewKeyBeforeSigningWithIt() throws Exception {
+        // Given
+        String oldKid = storedKeys.get(0).getKid();
+        age(storedKeys.get(0));
+
+        // When
+        signingKeyService.refresh();
+
+        // Then
+        String newKid = storedKeys.get(1).getKid();
+        List<String> published = new ArrayList<>();
+        objectMapper.readTree(signingKeyService.jwks()).get("keys")
+                .forEach(key -> published.add(key.get("kid").asText()));
+        assertTrue(published.contains(newKid));
+        // a verifier may still hold the JWKS cached before the rotation
+        assertEquals(oldKid, signingKeyService.signingKey().kid());
+
+        // When
+        // published for longer than the JWKS max-age
+        storedKeys.get(1).setCreatedAt(LocalDateTime.now().minusMinutes(6));
+        signingKeyService.refresh();
+
+        // Then
+        assertEquals(newKid, signingKeyService.signingKey().kid());
+        assertEquals(2, storedKeys.size());
+    }
+
+    @Test
+    void rotate_WhenAnotherInstanceTookTheSlot_ShouldUseItsKey() {
+        // Given
+        age(storedKeys.get(0));
+        SigningKey winner = SigningKey.builder()
+                .kid("other-instance")
+                .algorithm("ES256")
+                .publicKey(storedKeys.get(0).getPublicKey())
+                .privateKey(SigningKeyCipher.of(KEY_ENCRYPTION_KEY).encrypt("other-instance",
+                        SigningKeyCipher.of(KEY_ENCRYPTION_KEY)
+                                .decrypt(storedKeys.get(0).getKid(), storedKeys.get(0).getPrivateKey())))
+                .rotationSlot(storedKeys.get(0).getRotationSlot() + 1)
+                .build();
+        // the other instance inserted after our stale read, so our insert hits the same slot
+        when(signingKeyRepository.findAllByAlgorithmAndCreatedAtAfterOrderByCreatedAtDesc(any(), any()))
+                .thenAnswer(invocation -> storedKeys.stream()
+                        .filter(key -> key != winner)
+                        .sorted(Comparator.comparing(SigningKey::getCreatedAt).reversed())
+                        .toList())
+                .thenAnswer(invocation -> storedKeys.stream()
+                        .sorted(Comparator.comparing(SigningKey::getCreatedAt).reversed())
+                        .toList());
+        storedKeys.add(winner);
+
+        // When
+        signingKeyService.refresh();
+
+        // Then
+        assertEquals(2, storedKeys.size());
+        assertNotNull(signingKeyService.verificationKey("other-instance"));
+        activate(winner);
+        assertEquals("other-instance", signingKeyService.signingKey().kid());
+    }
+
+    @Test
+    void jwks_ShouldPublishAllVerificationKeys() throws Exception {
+        // Given
+        age(storedKeys.get(0));
+        signingKeyService.refresh();
+
+        // When
+        JsonNode keys = objectMapper.readTree(signingKeyService.jwks()).get("keys");
+
+        // Then
+        assertEquals(2, keys.size());
+        keys.forEach(key -> {
+            assertEquals("EC", key.get("kty").asText());
+            assertEquals("P-256", key.get("crv").asText());
+            assertEquals(43, key.get("x").asText().length());
+            assertEquals(43, key.get("y").asText().length());
+        });
+    }
+
+    @Test
+    void init_ShouldStorePrivateKeyEncrypted() {
+        // Given
+        SigningKey stored = storedKeys.get(0);
+
+        // When
+        byte[] decrypted = SigningKeyCipher.of(KEY_ENCRYPTION_KEY).decrypt(stored.getKid(), stored.getPrivateKey());
+
+        // Then
+        assertFalse(Arrays.equals(decrypted, stored.getPrivateKey()));
+        assertThrows(IllegalStateException.class, () -> SigningKeyCipher.of(KEY_ENCRYPTION_KEY)
+                .decrypt("another-kid", stored.getPrivateKey()));
+    }
+
+    @Test
+    void init_WithoutKeyEncryptionKey_ShouldFailClosed() {
+        // Given
+        EcSigningKeyServiceImpl service = new EcSigningKeyServiceImpl(signingKeyRepository, objectMapper);
+        ReflectionTestUtils.setField(service, "keyEncryptionKey", "");
+        int keys = storedKeys.size();
+
+        // When/Then
+        assertThrows(IllegalStateException.class, service::init);
+        assertEquals(keys, storedKeys.size());
+    }
+
+    private static void age(SigningKey key) {
+        key.setCreatedAt(LocalDateTime.now().minusDays(8));
+        key.setRotationSlot(key.getRotationSlot() - 1);
+    }
+
+    private void activate(SigningKey key) {
+        key.setCreatedAt(LocalDateTime.now().minusMinutes(6));
+        signingKeyService.refresh();
+    }
+
+    @Test
+    void verificationKey_WithUnknownKid_ShouldThrow() {
+        assertThrows(JwtException.class, () -> signingKeyService.verificationKey("unknown"));
+    }
+
+    @Test
+    void parseAndVerify_WithHmacTokenUsingKnownKid_ShouldBeRejected() {
+        // Given
+        String kid = signingKeyService.signingKey().kid();
+        String forged = Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setSubject("attacker@example.com")
+                .signWith(Keys.hmacShaKeyFor(new byte[32]))
+                .compact();
+
+        // When/Then
+        assertThrows(RuntimeException.class, () -> jwtService.parseAndVerify(forged));
+    }
+}
@@ -1,13 +1,18 @@
 package tuyenbd.authentication.domain.auth.service.impl;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
+import tuyenbd.authentication.domain.auth.service.JwtService;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
 
 import java.util.Date;
 import java.util.HashMap;
@@ -18,7 +23,6 @@ import static org.mockito.Mockito.*;
 
 class JwtServiceImplTest {
 
-    @InjectMocks
     private JwtServiceImpl jwtService;
 
     @Mock
@@ -31,9 +35,10 @@ class JwtServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        jwtService = new JwtServiceImpl(new HmacSigningKeyServiceImpl(SECRET_KEY));
         ReflectionTestUtils.setField(jwtService, "jwtExpiration", JWT_EXPIRATION);
         ReflectionTestUtils.setField(jwtService, "refreshExpiration", REFRESH_EXPIRATION);
+        jwtService.init();
     }
 
     @Test
@@ -126,6 +131,66 @@ class JwtServiceImplTest {
         assertFalse(isValid);
     }
 
+    @Test
+    void generateToken_ForUser_ShouldEmbedUserIdRoleTypeAndEpoch() {
+        // Given
+        User user = User.builder().id(7L).email("test@example.com").role(Role.ADMIN).tokenEpoch(3L).build();
+
+        // When
+        String token = jwtService.generateToken(user);
+        String refreshToken = jwtService.generateRefreshToken(user);
+
+        // Then
+        assertEquals(Long.valueOf(7L), jwtService.extractClaim(token, claims -> claims.get(JwtService.USER_ID_CLAIM, Long.class)));
+        assertEquals("ADMIN", jwtService.extractClaim(token, claims -> claims.get(JwtService.ROLE_CLAIM)));
+        assertEquals("ACCESS", jwtService.extractClaim(token, claims -> claims.get(JwtService.TOKEN_TYPE_CLAIM)));
+        assertEquals("REFRESH", jwtService.extractClaim(refreshToken, claims -> claims.get(JwtService.TOKEN_TYPE_CLAIM)));
+        assertEquals(3L, jwtService.parseAndVerify(token).tokenEpoch());
+    }
+
+    @Test
+    void parseAndVerify_ShouldExposeVerifiedClaims() {
+        // Given
+        User user = User.builder().id(7L).email("test@example.com").role(Role.USER).build();
+        String token = jwtService.generateToken(user);
+
+        // When
+        JwtClaims claims = jwtService.parseAndVerify(token);
+
+        // Then
+        assertEquals("test@example.com", claims.subject());
+        assertEquals(7L, claims.userId());
+        assertEquals("USER", claims.role());
+        assertEquals(TokenType.ACCESS, claims.tokenType());
+        assertTrue(claims.expiration().isAfter(claims.issuedAt()));
+    }
+
+    @Test
+    void parseAndVerify_WithTamperedToken_ShouldThrow() {
+        // Given
+        when(userDetails.getUsername()).thenReturn("test@example.com");
+        String token = jwtService.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When/Then
+        assertThrows(JwtException.class, () -> jwtService.parseAndVerify(tampered));
+        assertFalse(jwtService.isTokenValid(tampered, userDetails));
+    }
+
+    @Test
+    void isTokenValid_WithExpiredToken_ShouldReturnFalse() {
+        // Given
+        when(userDetails.getUsername()).thenReturn("test@example.com");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L);
+        String token = jwtService.generateToken(userDetails);
+
+        // When
+        boolean isValid = jwtService.isTokenValid(token, userDetails);
+
+        // Then
+        assertFalse(isValid);
+    }
+
     @Test
     void extractClaim_ShouldExtractSpecificClaim() {
         // Given
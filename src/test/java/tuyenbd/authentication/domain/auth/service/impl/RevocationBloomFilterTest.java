@@ -0,0 +1,40 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationBloomFilterTest {
+
+    @Test
+    void mightContain_WithInsertedValues_ShouldAlwaysReturnTrue() {
+        // Given
+        RevocationBloomFilter filter = new RevocationBloomFilter(1000, 0.01);
+        IntStream.range(0, 1000).forEach(i -> filter.put("revoked.token." + i));
+
+        // When/Then
+        IntStream.range(0, 1000).forEach(i -> assertTrue(filter.mightContain("revoked.token." + i)));
+    }
+
+    @Test
+    void mightContain_WithUnknownValues_ShouldStayNearConfiguredFalsePositiveRate() {
+        // Given
+        RevocationBloomFilter filter = new RevocationBloomFilter(1000, 0.01);
+        IntStream.range(0, 1000).forEach(i -> filter.put("revoked.token." + i));
+
+        // When
+        long falsePositives = IntStream.range(0, 10000)
+                .filter(i -> filter.mightContain("active.token." + i))
+                .count();
+
+        // Then
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void mightContain_WhenEmpty_ShouldReturnFalse() {
+        assertFalse(new RevocationBloomFilter(1000, 0.01).mightContain("any.token"));
+    }
+}
@@ -0,0 +1,88 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.DisabledException;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+import tuyenbd.authentication.domain.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenEpochServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenEpochServiceImpl tokenEpochService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenEpochService = new TokenEpochServiceImpl(userRepository, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void isCurrent_ShouldCompareWithCachedEpoch() {
+        // Given
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(2L));
+
+        // When/Then
+        assertTrue(tokenEpochService.isCurrent(1L, 2L));
+        assertFalse(tokenEpochService.isCurrent(1L, 1L));
+        verify(userRepository, times(1)).findTokenEpochById(1L);
+    }
+
+    @Test
+    void isCurrent_WithoutEpochClaim_ShouldReturnTrue() {
+        assertTrue(tokenEpochService.isCurrent(1L, null));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void isCurrent_WithUnknownUser_ShouldReturnFalse() {
+        // Given
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.empty());
+
+        // When/Then
+        assertFalse(tokenEpochService.isCurrent(1L, 0L));
+    }
+
+    @Test
+    void advance_ShouldIncrementEpochAndInvalidateOlderTokens() {
+        // Given
+        User user = User.builder().id(1L).tokenEpoch(2L).build();
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(2L));
+        assertTrue(tokenEpochService.isCurrent(1L, 2L));
+        when(userRepository.findTokenEpochById(1L)).thenReturn(Optional.of(3L));
+
+        // When
+        long epoch = tokenEpochService.advance(user);
+
+        // Then
+        assertEquals(3L, epoch);
+        assertEquals(3L, user.getTokenEpoch());
+        verify(userRepository).incrementTokenEpoch(1L);
+        assertFalse(tokenEpochService.isCurrent(1L, 2L));
+        assertTrue(tokenEpochService.isCurrent(1L, 3L));
+    }
+
+    @Test
+    void advanceIfActive_WhenUserIsInactive_ShouldThrowAndKeepEpoch() {
+        // Given
+        User user = User.builder().id(1L).tokenEpoch(2L).build();
+        when(userRepository.incrementTokenEpochIfStatus(1L, UserStatus.ACTIVE)).thenReturn(0);
+
+        // When/Then
+        assertThrows(DisabledException.class, () -> tokenEpochService.advanceIfActive(user));
+        assertEquals(2L, user.getTokenEpoch());
+        verify(userRepository, never()).findTokenEpochById(any());
+    }
+}
@@ -0,0 +1,69 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenGenerationServiceImplTest {
+
+    private final TokenGenerationServiceImpl tokenGenerationService =
+            new TokenGenerationServiceImpl(Duration.ofMinutes(15), 2);
+
+    @Test
+    void isStale_WithoutRevocation_ShouldReturnFalse() {
+        assertFalse(tokenGenerationService.isStale(1L, tokenGenerationService.currentGeneration()));
+    }
+
+    @Test
+    void isStale_WhenAdvancedAfterRead_ShouldOnlyAffectThatUser() {
+        // Given
+        long generation = tokenGenerationService.currentGeneration();
+
+        // When
+        tokenGenerationService.advanceGeneration(1L);
+
+        // Then
+        assertTrue(tokenGenerationService.isStale(1L, generation));
+        assertFalse(tokenGenerationService.isStale(2L, generation));
+        assertFalse(tokenGenerationService.isStale(1L, tokenGenerationService.currentGeneration()));
+    }
+
+    @Test
+    void isStale_WhenAnotherUserAdvancesLater_ShouldStayFresh() {
+        // Given
+        tokenGenerationService.advanceGeneration(1L);
+        long generation = tokenGenerationService.currentGeneration();
+
+        // When
+        tokenGenerationService.advanceGeneration(2L);
+
+        // Then
+        assertFalse(tokenGenerationService.isStale(1L, generation));
+        assertTrue(tokenGenerationService.isStale(2L, generation));
+    }
+
+    @Test
+    void isStale_WhenAdvancedUserWasEvicted_ShouldTreatEveryUserAsStale() {
+        // Given
+        long generation = tokenGenerationService.currentGeneration();
+        tokenGenerationService.advanceGeneration(1L);
+        tokenGenerationService.advanceGeneration(2L);
+
+        // When
+        tokenGenerationService.advanceGeneration(3L);
+        Cache<?, ?> userGenerations =
+                (Cache<?, ?>) ReflectionTestUtils.getField(tokenGenerationService, "userGenerations");
+        userGenerations.cleanUp();
+
+        // Then
+        assertEquals(2, userGenerations.estimatedSize());
+        for (long userId = 1; userId <= 4; userId++) {
+            assertTrue(tokenGenerationService.isStale(userId, generation));
+        }
+        assertFalse(tokenGenerationService.isStale(4L, tokenGenerationService.currentGeneration()));
+    }
+}
@@ -0,0 +1,110 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import tuyenbd.authentication.domain.auth.enums.TokenStatus;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.repository.TokenRepository;
+import tuyenbd.authentication.domain.auth.service.TokenRevocationService;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRetentionServiceImplTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRetentionServiceImpl tokenRetentionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        tokenRetentionService = new TokenRetentionServiceImpl(tokenRepository, tokenRevocationService, meterRegistry);
+        ReflectionTestUtils.setField(tokenRetentionService, "enabled", true);
+        ReflectionTestUtils.setField(tokenRetentionService, "batchSize", 2);
+        ReflectionTestUtils.setField(tokenRetentionService, "batchPause", Duration.ZERO);
+        ReflectionTestUtils.setField(tokenRetentionService, "maxBatchesPerRun", 10);
+        ReflectionTestUtils.setField(tokenRetentionService, "inactiveRetention", Duration.ofDays(1));
+        ReflectionTestUtils.setField(tokenRetentionService, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(tokenRetentionService, "refreshExpiration", 604800000L);
+        when(tokenRepository.findIdsByTokenTypeAndCreatedAtBefore(any(), any(), any())).thenReturn(List.of());
+        when(tokenRepository.findIdsByStatusAndTokenTypeInAndUpdatedAtBefore(any(), any(), any(), any()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    void purge_ShouldDeleteExpiredTokensInBatches() {
+        // Given
+        when(tokenRepository.findIdsByTokenTypeAndCreatedAtBefore(eq(TokenType.ACCESS), any(), any()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        // When
+        long purged = tokenRetentionService.purge();
+
+        // Then
+        assertEquals(3, purged);
+        verify(tokenRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(tokenRepository).deleteAllByIdInBatch(List.of(3L));
+        assertEquals(3, meterRegistry.counter(TokenRetentionServiceImpl.PURGED_METRIC, "reason", "expired").count());
+        assertEquals(1, meterRegistry.timer(TokenRetentionServiceImpl.PURGE_TIMER).count());
+    }
+
+    @Test
+    void purge_ShouldStopAfterMaxBatchesPerRun() {
+        // Given
+        ReflectionTestUtils.setField(tokenRetentionService, "maxBatchesPerRun", 2);
+        when(tokenRepository.findIdsByTokenTypeAndCreatedAtBefore(eq(TokenType.ACCESS), any(), any()))
+                .thenReturn(List.of(1L, 2L));
+
+        // When
+        long purged = tokenRetentionService.purge();
+
+        // Then
+        assertEquals(4, purged);
+        verify(tokenRepository, times(2)).deleteAllByIdInBatch(any());
+        verify(tokenRepository, never()).findIdsByStatusAndTokenTypeInAndUpdatedAtBefore(any(), any(), any(), any());
+    }
+
+    @Test
+    void purge_WithStatelessValidation_ShouldKeepRevokedAccessTokensUntilExpiry() {
+        // Given
+        when(tokenRevocationService.isEnabled()).thenReturn(true);
+
+        // When
+        tokenRetentionService.purge();
+
+        // Then
+        verify(tokenRepository).findIdsByStatusAndTokenTypeInAndUpdatedAtBefore(eq(TokenStatus.INACTIVE),
+                eq(EnumSet.of(TokenType.REFRESH)), any(), any());
+    }
+
+    @Test
+    void purge_WhenDisabled_ShouldDoNothing() {
+        // Given
+        ReflectionTestUtils.setField(tokenRetentionService, "enabled", false);
+
+        // When
+        long purged = tokenRetentionService.purge();
+
+        // Then
+        assertEquals(0, purged);
+        verifyNoInteractions(tokenRepository);
+    }
+}
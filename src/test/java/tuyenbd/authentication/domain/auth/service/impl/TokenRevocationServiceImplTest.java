@@ -0,0 +1,116 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import tuyenbd.authentication.domain.auth.enums.TokenStatus;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.repository.TokenRepository;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceImplTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenRevocationService = new TokenRevocationServiceImpl(tokenRepository, transactionManager);
+        ReflectionTestUtils.setField(tokenRevocationService, "enabled", true);
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveRate", 0.001);
+    }
+
+    @Test
+    void mightBeRevoked_BeforeFirstRebuild_ShouldReturnTrue() {
+        assertTrue(tokenRevocationService.mightBeRevoked("any.token"));
+    }
+
+    @Test
+    void rebuild_ShouldLoadInactiveAccessTokens() {
+        // Given
+        when(tokenRepository.streamTokensByStatusAndType(TokenStatus.INACTIVE, TokenType.ACCESS))
+                .thenReturn(Stream.of("revoked.token"));
+
+        // When
+        tokenRevocationService.rebuild();
+
+        // Then
+        assertTrue(tokenRevocationService.mightBeRevoked("revoked.token"));
+        assertFalse(tokenRevocationService.mightBeRevoked("active.token"));
+    }
+
+    @Test
+    void rebuild_WhenTokenIsRevokedWhileReading_ShouldKeepTheRevocation() {
+        // Given
+        when(tokenRepository.streamTokensByStatusAndType(TokenStatus.INACTIVE, TokenType.ACCESS))
+                .thenReturn(Stream.of("old.revoked.token"))
+                .thenAnswer(invocation -> {
+                    // committed after the rebuild's read started, so the stream below does not contain it
+                    tokenRevocationService.markRevoked("revoked.during.rebuild");
+                    return Stream.of("old.revoked.token");
+                });
+        tokenRevocationService.rebuild();
+
+        // When
+        tokenRevocationService.rebuild();
+
+        // Then
+        assertTrue(tokenRevocationService.mightBeRevoked("old.revoked.token"));
+        assertTrue(tokenRevocationService.mightBeRevoked("revoked.during.rebuild"));
+    }
+
+    @Test
+    void rebuild_WhenTokenIsRevokedDuringFirstBuild_ShouldKeepTheRevocation() {
+        // Given
+        when(tokenRepository.streamTokensByStatusAndType(TokenStatus.INACTIVE, TokenType.ACCESS))
+                .thenAnswer(invocation -> {
+                    tokenRevocationService.markRevoked("revoked.during.rebuild");
+                    return Stream.empty();
+                });
+
+        // When
+        tokenRevocationService.rebuild();
+
+        // Then
+        assertTrue(tokenRevocationService.mightBeRevoked("revoked.during.rebuild"));
+    }
+
+    @Test
+    void markRevoked_InTransaction_ShouldReachFilterSwappedInBeforeCommit() {
+        // Given
+        when(tokenRepository.streamTokensByStatusAndType(TokenStatus.INACTIVE, TokenType.ACCESS))
+                .thenReturn(Stream.empty(), Stream.empty());
+        tokenRevocationService.rebuild();
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenRevocationService.markRevoked("revoked.token");
+            // a rebuild that read the table before the commit swaps in a filter without the token
+            tokenRevocationService.rebuild();
+            assertFalse(tokenRevocationService.mightBeRevoked("revoked.token"));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertTrue(tokenRevocationService.mightBeRevoked("revoked.token"));
+    }
+}
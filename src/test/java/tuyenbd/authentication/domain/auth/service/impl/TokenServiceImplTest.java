@@ -1,32 +1,60 @@
 package tuyenbd.authentication.domain.auth.service.impl;
 
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.security.core.Authentication;
+import org.mockito.Spy;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.test.util.ReflectionTestUtils;
 import tuyenbd.authentication.controller.dto.AuthenticationResponse;
 import tuyenbd.authentication.controller.dto.TokenRequest;
 import tuyenbd.authentication.controller.dto.TokenValidationResponse;
 import tuyenbd.authentication.domain.auth.entity.Token;
 import tuyenbd.authentication.domain.auth.enums.TokenStatus;
 import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.JwtClaims;
+import tuyenbd.authentication.domain.auth.model.TokenCacheKey;
+import tuyenbd.authentication.domain.auth.model.TokenDigest;
+import tuyenbd.authentication.domain.auth.model.TokenPrincipal;
 import tuyenbd.authentication.domain.auth.repository.TokenRepository;
 import tuyenbd.authentication.domain.auth.service.JwtService;
+import tuyenbd.authentication.domain.auth.service.TokenEpochService;
+import tuyenbd.authentication.domain.auth.service.TokenGenerationService;
+import tuyenbd.authentication.domain.auth.service.TokenRevocationService;
+import tuyenbd.authentication.domain.auth.service.TokenWriteBehindService;
 import tuyenbd.authentication.domain.user.entity.User;
 import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+import tuyenbd.authentication.domain.user.model.UserCredentials;
+import tuyenbd.authentication.domain.user.service.UserCredentialsService;
 import tuyenbd.authentication.exception.TokenNotFoundException;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class TokenServiceImplTest {
@@ -37,6 +65,33 @@ class TokenServiceImplTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache tokenCache;
+
+    @Mock
+    private Cache unknownTokenCache;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private TokenGenerationService tokenGenerationService;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private TokenWriteBehindService tokenWriteBehindService;
+
+    @Mock
+    private UserCredentialsService userCredentialsService;
+
     @Mock
     private TokenServiceImpl tokenServiceSelf;
 
@@ -49,40 +104,232 @@ class TokenServiceImplTest {
         var selfField = TokenServiceImpl.class.getDeclaredField("self");
         selfField.setAccessible(true);
         selfField.set(tokenService, tokenServiceSelf);
+        ReflectionTestUtils.setField(tokenService, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(tokenService, "coalesceTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(tokenService, "writeBehindMaxLag", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(tokenService, "unknownTokenGrace", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(tokenService, "batchJwtVerifier",
+                new BatchJwtVerifier(jwtService, meterRegistry, 2));
+        when(cacheManager.getCache("token")).thenReturn(tokenCache);
+        when(cacheManager.getCache("unknownToken")).thenReturn(unknownTokenCache);
+        when(tokenEpochService.isCurrent(any(), any())).thenReturn(true);
     }
 
     @Test
-    void getToken_ShouldReturnToken() {
+    void loadToken_ShouldReturnPrincipalWithExpiryAndCurrentGeneration() {
         // Given
         String jwt = "test.jwt.token";
         TokenType tokenType = TokenType.ACCESS;
-        Token expectedToken = Token.builder()
-                .token(jwt)
-                .tokenType(tokenType)
-                .build();
-        when(tokenRepository.findByTokenAndTokenType(jwt, tokenType))
-                .thenReturn(Optional.of(expectedToken));
+        Instant expiresAt = stubExpiry(jwt, Duration.ofMinutes(10));
+        when(tokenGenerationService.currentGeneration()).thenReturn(5L);
+        when(tokenRepository.findPrincipalByTokenHashAndTokenType(TokenDigest.of(jwt), tokenType))
+                .thenReturn(Optional.of(principal(jwt, tokenType, TokenStatus.ACTIVE)));
 
         // When
-        Token result = tokenService.getToken(jwt, tokenType);
+        TokenPrincipal result = tokenService.loadToken(jwt, tokenType);
 
         // Then
         assertNotNull(result);
-        assertEquals(jwt, result.getToken());
-        assertEquals(tokenType, result.getTokenType());
+        assertEquals(TokenDigest.of(jwt), result.tokenHash());
+        assertEquals(tokenType, result.tokenType());
+        assertEquals(expiresAt, result.expiresAt());
+        assertEquals(5L, result.cacheGeneration());
+    }
+
+    @Test
+    void loadToken_WithExpiredJwt_ShouldRejectWithoutQuery() {
+        // Given
+        String jwt = "expired.jwt.token";
+        Date expiration = Date.from(Instant.now().minusSeconds(1).truncatedTo(ChronoUnit.SECONDS));
+        when(jwtService.parseAndVerify(jwt))
+                .thenThrow(new ExpiredJwtException(null, Jwts.claims().setExpiration(expiration), "expired"));
+
+        // When/Then
+        assertThrows(TokenNotFoundException.class, () -> tokenService.loadToken(jwt, TokenType.ACCESS));
+        verifyNoInteractions(tokenRepository, unknownTokenCache);
+        assertEquals(1.0, meterRegistry.counter(TokenServiceImpl.INVALID_TOKEN_METRIC).count());
+    }
+
+    @Test
+    void loadToken_WithForgedJwt_ShouldRejectWithoutCacheOrQuery() {
+        // Given
+        String jwt = "forged.jwt.token";
+        when(jwtService.parseAndVerify(jwt)).thenThrow(new SignatureException("bad signature"));
+
+        // When/Then
+        assertThrows(TokenNotFoundException.class, () -> tokenService.loadToken(jwt, TokenType.ACCESS));
+        verifyNoInteractions(tokenRepository, unknownTokenCache, tokenWriteBehindService);
+    }
+
+    @Test
+    void loadToken_WhenJustIssuedTokenIsNotStoredYet_ShouldNotRememberItAsUnknown() {
+        // Given
+        // issued on another instance whose write-behind queue has not been flushed
+        String jwt = "fresh.jwt.token";
+        when(jwtService.parseAndVerify(jwt)).thenReturn(new JwtClaims(Jwts.claims()
+                .setIssuedAt(Date.from(Instant.now()))
+                .setExpiration(Date.from(Instant.now().plusSeconds(600)))));
+        when(tokenRepository.findPrincipalByTokenHashAndTokenType(TokenDigest.of(jwt), TokenType.ACCESS))
+                .thenReturn(Optional.empty());
+
+        // When/Then
+        assertThrows(TokenNotFoundException.class, () -> tokenService.loadToken(jwt, TokenType.ACCESS));
+        verify(unknownTokenCache, never()).put(any(), any());
+    }
+
+    @Test
+    void loadToken_WhenSameTokenMissesConcurrently_ShouldQueryOnce() throws Exception {
+        // Given
+        String jwt = "popular.jwt.token";
+        stubExpiry(jwt, Duration.ofMinutes(10));
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(tokenRepository.findPrincipalByTokenHashAndTokenType(TokenDigest.of(jwt), TokenType.ACCESS))
+                .thenAnswer(invocation -> {
+                    queryStarted.countDown();
+                    releaseQuery.await();
+                    return Optional.of(principal(jwt, TokenType.ACCESS, TokenStatus.ACTIVE));
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<TokenPrincipal> leader = executor.submit(() -> tokenService.loadToken(jwt, TokenType.ACCESS));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            Thread[] waiterThread = new Thread[1];
+            Future<TokenPrincipal> waiter = executor.submit(() -> {
+                waiterThread[0] = Thread.currentThread();
+                return tokenService.loadToken(jwt, TokenType.ACCESS);
+            });
+            awaitWaiting(waiterThread);
+
+            // When
+            releaseQuery.countDown();
+
+            // Then
+            assertEquals(leader.get(5, TimeUnit.SECONDS), waiter.get(5, TimeUnit.SECONDS));
+            verify(tokenRepository, times(1)).findPrincipalByTokenHashAndTokenType(any(), any());
+            assertEquals(1.0, meterRegistry.counter(TokenServiceImpl.COALESCED_METRIC, "result", "joined").count());
+        } finally {
+            releaseQuery.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void loadToken_WhenLeadingQueryIsTooSlow_ShouldFallBackToOwnQuery() throws Exception {
+        // Given
+        String jwt = "slow.jwt.token";
+        stubExpiry(jwt, Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(tokenService, "coalesceTimeout", Duration.ofMillis(50));
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+        when(tokenRepository.findPrincipalByTokenHashAndTokenType(TokenDigest.of(jwt), TokenType.ACCESS))
+                .thenAnswer(invocation -> {
+                    queryStarted.countDown();
+                    releaseQuery.await();
+                    return Optional.of(principal(jwt, TokenType.ACCESS, TokenStatus.ACTIVE));
+                })
+                .thenReturn(Optional.of(principal(jwt, TokenType.ACCESS, TokenStatus.ACTIVE)));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<TokenPrincipal> leader = executor.submit(() -> tokenService.loadToken(jwt, TokenType.ACCESS));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+
+            // When
+            TokenPrincipal result = tokenService.loadToken(jwt, TokenType.ACCESS);
+
+            // Then
+            assertEquals(TokenDigest.of(jwt), result.tokenHash());
+            assertEquals(1.0, meterRegistry.counter(TokenServiceImpl.COALESCED_METRIC, "result", "timeout").count());
+            releaseQuery.countDown();
+            assertNotNull(leader.get(5, TimeUnit.SECONDS));
+            verify(tokenRepository, times(2)).findPrincipalByTokenHashAndTokenType(any(), any());
+        } finally {
+            releaseQuery.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getToken_ShouldReturnCachedToken() {
+        // Given
+        String jwt = "test.jwt.token";
+        TokenPrincipal cached = principal(jwt, TokenType.ACCESS, TokenStatus.ACTIVE).withCacheGeneration(3L);
+        when(tokenServiceSelf.loadToken(jwt, TokenType.ACCESS)).thenReturn(cached);
+
+        // When
+        TokenPrincipal result = tokenService.getToken(jwt, TokenType.ACCESS);
+
+        // Then
+        assertSame(cached, result);
+        verify(tokenServiceSelf, never()).clearTokenCache(any(), any());
+    }
+
+    @Test
+    void getToken_WhenUserTokensRevokedAfterCaching_ShouldReload() {
+        // Given
+        String jwt = "test.jwt.token";
+        TokenPrincipal stale = principal(jwt, TokenType.ACCESS, TokenStatus.ACTIVE).withCacheGeneration(3L);
+        TokenPrincipal fresh = principal(jwt, TokenType.ACCESS, TokenStatus.INACTIVE).withCacheGeneration(4L);
+        when(tokenServiceSelf.loadToken(jwt, TokenType.ACCESS)).thenReturn(stale, fresh);
+        when(tokenGenerationService.isStale(1L, 3L)).thenReturn(true);
+
+        // When
+        TokenPrincipal result = tokenService.getToken(jwt, TokenType.ACCESS);
+
+        // Then
+        assertSame(fresh, result);
+        verify(tokenServiceSelf).clearTokenCache(jwt, TokenType.ACCESS);
     }
 
     @Test
-    void getToken_WhenNotFound_ShouldThrowException() {
+    void loadToken_WhenNotFound_ShouldThrowException() {
         // Given
         String jwt = "invalid.jwt.token";
         TokenType tokenType = TokenType.ACCESS;
-        when(tokenRepository.findByTokenAndTokenType(jwt, tokenType))
+        stubExpiry(jwt, Duration.ofMinutes(10));
+        when(tokenRepository.findPrincipalByTokenHashAndTokenType(TokenDigest.of(jwt), tokenType))
                 .thenReturn(Optional.empty());
 
         // When/Then
         assertThrows(TokenNotFoundException.class,
-                () -> tokenService.getToken(jwt, tokenType));
+                () -> tokenService.loadToken(jwt, tokenType));
+        verify(unknownTokenCache).put(new SimpleKey(TokenDigest.of(jwt), tokenType), Boolean.TRUE);
+        assertEquals(1.0, meterRegistry.counter(TokenServiceImpl.UNKNOWN_TOKEN_METRIC, "source", "database").count());
+    }
+
+    @Test
+    void loadToken_WhenDigestIsKnownUnknown_ShouldRejectWithoutQuery() {
+        // Given
+        String jwt = "bogus.jwt.token";
+        stubExpiry(jwt, Duration.ofMinutes(10));
+        when(unknownTokenCache.get(new SimpleKey(TokenDigest.of(jwt), TokenType.ACCESS)))
+                .thenReturn(new SimpleValueWrapper(Boolean.TRUE));
+
+        // When/Then
+        assertThrows(TokenNotFoundException.class, () -> tokenService.loadToken(jwt, TokenType.ACCESS));
+        verifyNoInteractions(tokenRepository, tokenWriteBehindService);
+        assertEquals(1.0, meterRegistry.counter(TokenServiceImpl.UNKNOWN_TOKEN_METRIC, "source", "cache").count());
+    }
+
+    @Test
+    void loadToken_WhenTokenIsQueuedForWriteBehind_ShouldReturnPendingToken() {
+        // Given
+        String jwt = "pending.jwt.token";
+        stubExpiry(jwt, Duration.ofMinutes(10));
+        Token pending = Token.builder().token(jwt).tokenHash(TokenDigest.of(jwt)).tokenType(TokenType.ACCESS)
+                .user(user()).build();
+        when(tokenRepository.findPrincipalByTokenHashAndTokenType(TokenDigest.of(jwt), TokenType.ACCESS))
+                .thenReturn(Optional.empty());
+        when(tokenWriteBehindService.isEnabled()).thenReturn(true);
+        when(tokenWriteBehindService.findPending(TokenDigest.of(jwt))).thenReturn(Optional.of(pending));
+
+        // When
+        TokenPrincipal result = tokenService.loadToken(jwt, TokenType.ACCESS);
+
+        // Then
+        assertEquals(TokenDigest.of(jwt), result.tokenHash());
+        assertEquals(1L, result.userId());
+        assertThrows(TokenNotFoundException.class, () -> tokenService.loadToken(jwt, TokenType.REFRESH));
     }
 
     @Test
@@ -104,23 +351,43 @@ class TokenServiceImplTest {
         verify(tokenRepository, times(2)).save(any(Token.class));
     }
 
+    @Test
+    void createToken_WithWriteBehind_ShouldQueueAndCacheTokens() {
+        // Given
+        User user = user();
+        when(jwtService.generateToken(user)).thenReturn("access.token");
+        when(jwtService.generateRefreshToken(user)).thenReturn("refresh.token");
+        stubExpiry("access.token", Duration.ofMinutes(10));
+        stubExpiry("refresh.token", Duration.ofDays(1));
+        when(tokenWriteBehindService.isEnabled()).thenReturn(true);
+        when(tokenGenerationService.currentGeneration()).thenReturn(7L);
+
+        // When
+        tokenService.createToken(user);
+
+        // Then
+        verify(tokenRepository, never()).save(any(Token.class));
+        verify(tokenWriteBehindService).write(argThat(token ->
+                token.getTokenHash().equals(TokenDigest.of("access.token"))));
+        verify(tokenWriteBehindService).write(argThat(token -> token.getTokenType() == TokenType.REFRESH));
+        verify(tokenCache).put(eq(new TokenCacheKey("access.token", TokenType.ACCESS)), argThat(token ->
+                ((TokenPrincipal) token).cacheGeneration() == 7L));
+        verify(tokenCache).put(eq(new TokenCacheKey("refresh.token", TokenType.REFRESH)),
+                any(TokenPrincipal.class));
+    }
+
     @Test
     void refreshToken_WithValidToken_ShouldReturnNewAccessToken() {
         // Given
         String refreshToken = "refresh.token";
         TokenRequest request = new TokenRequest(refreshToken);
-        User user = new User();
-        Token token = Token.builder()
-                .token(refreshToken)
-                .tokenType(TokenType.REFRESH)
-                .status(TokenStatus.ACTIVE)
-                .user(user)
-                .build();
+        TokenPrincipal token = principal(refreshToken, TokenType.REFRESH, TokenStatus.ACTIVE);
         String newAccessToken = "new.access.token";
 
         when(tokenServiceSelf.getToken(refreshToken, TokenType.REFRESH)).thenReturn(token);
-        when(jwtService.isTokenValid(refreshToken, user)).thenReturn(true);
-        when(jwtService.generateToken(user)).thenReturn(newAccessToken);
+        when(userCredentialsService.findByEmail("test@example.com")).thenReturn(Optional.of(
+                new UserCredentials(1L, "test@example.com", "hash", Role.USER, UserStatus.ACTIVE, 0L)));
+        when(jwtService.generateToken(argThat(user -> ((User) user).getId() == 1L))).thenReturn(newAccessToken);
 
         // When
         AuthenticationResponse response = tokenService.refreshToken(request);
@@ -129,6 +396,21 @@ class TokenServiceImplTest {
         assertNotNull(response);
         assertEquals(newAccessToken, response.getAccessToken());
         assertEquals(refreshToken, response.getRefreshToken());
+        verify(tokenEpochService).advanceIfActive(argThat(user -> user.getId() == 1L));
+    }
+
+    @Test
+    void createToken_WhenUserWasDeactivatedOnAnotherInstance_ShouldNotIssueTokens() {
+        // Given
+        // credentials came from a cache that still says ACTIVE, the row no longer does
+        User user = user();
+        when(tokenEpochService.advanceIfActive(user)).thenThrow(new DisabledException("User is not active"));
+
+        // When/Then
+        assertThrows(DisabledException.class, () -> tokenService.createToken(user));
+        verifyNoInteractions(jwtService);
+        verify(tokenRepository, never()).save(any(Token.class));
+        verify(tokenEpochService, never()).advance(any());
     }
 
     @Test
@@ -136,17 +418,9 @@ class TokenServiceImplTest {
         // Given
         String jwt = "valid.token";
         TokenRequest request = new TokenRequest(jwt);
-        User user = new User();
-        user.setRole(Role.USER);
-        Token token = Token.builder()
-                .token(jwt)
-                .tokenType(TokenType.ACCESS)
-                .status(TokenStatus.ACTIVE)
-                .user(user)
-                .build();
+        TokenPrincipal token = principal(jwt, TokenType.ACCESS, TokenStatus.ACTIVE);
 
         when(tokenServiceSelf.getToken(jwt, TokenType.ACCESS)).thenReturn(token);
-        when(jwtService.isTokenValid(jwt, user)).thenReturn(true);
 
         // When
         TokenValidationResponse response = tokenService.validateToken(request);
@@ -154,62 +428,215 @@ class TokenServiceImplTest {
         // Then
         assertNotNull(response);
         assertTrue(response.isValid());
-        assertEquals(user.getUsername(), response.getUsername());
+        assertEquals("test@example.com", response.getUsername());
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void validateTokens_ShouldResolveCachedAndStoredTokensInOneQuery() {
+        // Given
+        TokenPrincipal cached = principal("cached.token", TokenType.ACCESS, TokenStatus.ACTIVE);
+        TokenPrincipal stored = principal("stored.token", TokenType.ACCESS, TokenStatus.ACTIVE);
+        stubExpiry("stored.token", Duration.ofMinutes(10));
+        stubExpiry("unknown.token", Duration.ofMinutes(10));
+        when(tokenCache.get(new TokenCacheKey("cached.token", TokenType.ACCESS), TokenPrincipal.class))
+                .thenReturn(cached);
+        when(tokenRepository.findPrincipalsByTokenHashInAndTokenType(
+                Set.of(TokenDigest.of("stored.token"), TokenDigest.of("unknown.token")), TokenType.ACCESS))
+                .thenReturn(List.of(stored.withExpiresAt(null)));
+
+        // When
+        List<TokenValidationResponse> responses = tokenService.validateTokens(
+                List.of("cached.token", "stored.token", "unknown.token"));
+
+        // Then
+        assertEquals(3, responses.size());
+        assertTrue(responses.get(0).isValid());
+        assertTrue(responses.get(1).isValid());
+        assertEquals("test@example.com", responses.get(1).getUsername());
+        assertFalse(responses.get(2).isValid());
+        assertNull(responses.get(2).getUsername());
+        verify(tokenRepository, times(1)).findPrincipalsByTokenHashInAndTokenType(any(), any());
+        verify(tokenCache).put(eq(new TokenCacheKey("stored.token", TokenType.ACCESS)), argThat(token ->
+                TokenDigest.of("stored.token").equals(((TokenPrincipal) token).tokenHash())));
+        verify(unknownTokenCache).put(new SimpleKey(TokenDigest.of("unknown.token"), TokenType.ACCESS), Boolean.TRUE);
+    }
+
+    @Test
+    void validateTokens_WhenDigestIsKnownUnknown_ShouldNotQueryIt() {
+        // Given
+        stubExpiry("bogus.token", Duration.ofMinutes(10));
+        when(unknownTokenCache.get(new SimpleKey(TokenDigest.of("bogus.token"), TokenType.ACCESS)))
+                .thenReturn(new SimpleValueWrapper(Boolean.TRUE));
+
+        // When
+        List<TokenValidationResponse> responses = tokenService.validateTokens(List.of("bogus.token"));
+
+        // Then
+        assertFalse(responses.get(0).isValid());
+        verifyNoInteractions(tokenRepository);
+        assertEquals(1.0, meterRegistry.counter(TokenServiceImpl.UNKNOWN_TOKEN_METRIC, "source", "cache").count());
+    }
+
+    @Test
+    void validateTokens_WithForgedToken_ShouldRejectWithoutDatabaseOrCache() {
+        // Given
+        when(jwtService.parseAndVerify("forged.token")).thenThrow(new SignatureException("bad signature"));
+
+        // When
+        List<TokenValidationResponse> responses = tokenService.validateTokens(List.of("forged.token"));
+
+        // Then
+        assertFalse(responses.get(0).isValid());
+        verifyNoInteractions(tokenRepository);
+        verify(unknownTokenCache, never()).get(any());
+        verify(unknownTokenCache, never()).put(any(), any());
+    }
+
+    @Test
+    void validateTokens_WhenBatchTooLarge_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> tokenService.validateTokens(List.of("1", "2", "3", "4")));
+        verifyNoInteractions(tokenRepository);
     }
 
     @Test
     void disableToken_ShouldMarkTokenRequestAsInactive() {
         // Given
         String jwt = "token.to.disable";
-        Token token = Token.builder()
-                .token(jwt)
-                .status(TokenStatus.ACTIVE)
-                .build();
-        when(tokenServiceSelf.getToken(jwt, TokenType.ACCESS)).thenReturn(token);
+        when(tokenServiceSelf.getToken(jwt, TokenType.ACCESS))
+                .thenReturn(principal(jwt, TokenType.ACCESS, TokenStatus.ACTIVE));
+
+        // When
+        tokenService.disableToken(jwt);
+
+        // Then
+        verify(tokenRepository).updateStatusByTokenHash(eq(TokenDigest.of(jwt)), eq(TokenStatus.INACTIVE), any());
+        verify(tokenRepository, never()).save(any());
+        verify(tokenRevocationService).markRevoked(jwt);
+        verify(tokenServiceSelf).clearTokenCache(jwt, TokenType.ACCESS);
+        verify(tokenWriteBehindService, never()).flush();
+    }
+
+    @Test
+    void disableToken_WhenTokenIsStillQueued_ShouldFlushBeforeUpdating() {
+        // Given
+        String jwt = "queued.token";
+        when(tokenServiceSelf.getToken(jwt, TokenType.ACCESS))
+                .thenReturn(principal(jwt, TokenType.ACCESS, TokenStatus.ACTIVE));
+        when(tokenWriteBehindService.isEnabled()).thenReturn(true);
+        when(tokenWriteBehindService.findPending(TokenDigest.of(jwt))).thenReturn(Optional.of(new Token()));
 
         // When
         tokenService.disableToken(jwt);
 
         // Then
-        assertEquals(TokenStatus.INACTIVE, token.getStatus());
-        verify(tokenRepository).save(token);
-        verify(tokenServiceSelf).clearTokenCache(token);
+        var inOrder = inOrder(tokenWriteBehindService, tokenRepository);
+        inOrder.verify(tokenWriteBehindService).flush();
+        inOrder.verify(tokenRepository).updateStatusByTokenHash(eq(TokenDigest.of(jwt)), eq(TokenStatus.INACTIVE),
+                any());
     }
 
     @Test
-    void revokeAllUserTokens_ShouldRevokeAllActiveTokens() {
+    void isTokenValid_WhenUserEpochAdvanced_ShouldReturnFalse() {
+        // Given
+        TokenPrincipal token = new TokenPrincipal(TokenDigest.of("old.epoch.token"), TokenType.ACCESS,
+                TokenStatus.ACTIVE, 2L, 1L, "test@example.com", Role.USER, UserStatus.ACTIVE)
+                .withExpiresAt(Instant.now().plusSeconds(60));
+        when(tokenEpochService.isCurrent(1L, 2L)).thenReturn(false);
+
+        // When
+        boolean isValid = tokenService.isTokenValid(token);
+
+        // Then
+        assertFalse(isValid);
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void isTokenValid_WhenUserIsInactive_ShouldReturnFalse() {
+        // Given
+        TokenPrincipal token = new TokenPrincipal(TokenDigest.of("inactive.user.token"), TokenType.ACCESS,
+                TokenStatus.ACTIVE, 2L, 1L, "test@example.com", Role.USER, UserStatus.INACTIVE)
+                .withExpiresAt(Instant.now().plusSeconds(60));
+        when(tokenEpochService.isCurrent(1L, 2L)).thenReturn(true);
+
+        // When
+        boolean isValid = tokenService.isTokenValid(token);
+
+        // Then
+        assertFalse(isValid);
+    }
+
+    @Test
+    void saveUserToken_ShouldRecordUserEpoch() {
+        // Given
+        User user = User.builder().id(1L).tokenEpoch(4L).build();
+
+        // When
+        tokenService.saveUserToken(user, "access.token", TokenType.ACCESS);
+
+        // Then
+        verify(tokenRepository).save(argThat(token -> token.getTokenEpoch() == 4L));
+        verify(unknownTokenCache).evict(new SimpleKey(TokenDigest.of("access.token"), TokenType.ACCESS));
+    }
+
+    @Test
+    void revokeAllUserTokens_ShouldAdvanceEpochAndRevokeWithSingleUpdate() {
         // Given
         User user = new User();
         user.setId(1L);
-        List<Token> activeTokens = Arrays.asList(
-            Token.builder().token("1").tokenType(TokenType.ACCESS).status(TokenStatus.ACTIVE).build(),
-            Token.builder().token("2").tokenType(TokenType.REFRESH).status(TokenStatus.ACTIVE).build()
-        );
-        when(tokenRepository.findAllActiveTokensByUser(user.getId())).thenReturn(activeTokens);
+        when(tokenRepository.updateStatusByUser(eq(1L), eq(TokenStatus.ACTIVE), eq(TokenStatus.INACTIVE), any()))
+                .thenReturn(2);
 
         // When
         tokenService.revokeAllUserTokens(user);
 
         // Then
-        verify(tokenRepository).saveAll(activeTokens);
-        activeTokens.forEach(token -> {
-            assertEquals(TokenStatus.INACTIVE, token.getStatus());
-            verify(tokenServiceSelf).clearTokenCache(token);
-        });
+        verify(tokenEpochService).advance(user);
+        verify(tokenRepository, never()).saveAll(any());
+        verify(tokenRevocationService, never()).markRevoked(any());
+        verify(tokenGenerationService).advanceGeneration(1L);
+        verify(tokenServiceSelf, never()).clearTokenCache(any(), any());
     }
 
     @Test
-    void revokeAllUserTokens_WithNoActiveTokens_ShouldDoNothing() {
+    void revokeAllUserTokens_WithNoActiveTokens_ShouldOnlyAdvanceEpoch() {
         // Given
         User user = new User();
         user.setId(1L);
-        when(tokenRepository.findAllActiveTokensByUser(user.getId())).thenReturn(Collections.emptyList());
+        when(tokenRepository.updateStatusByUser(eq(1L), eq(TokenStatus.ACTIVE), eq(TokenStatus.INACTIVE), any()))
+                .thenReturn(0);
 
         // When
         tokenService.revokeAllUserTokens(user);
 
         // Then
-        verify(tokenRepository, never()).saveAll(any());
-        verify(tokenServiceSelf, never()).clearTokenCache(any());
+        verify(tokenEpochService).advance(user);
+        verify(tokenGenerationService, never()).advanceGeneration(any());
+    }
+
+    private User user() {
+        return User.builder().id(1L).email("test@example.com").role(Role.USER).build();
+    }
+
+    private TokenPrincipal principal(String jwt, TokenType tokenType, TokenStatus status) {
+        return new TokenPrincipal(TokenDigest.of(jwt), tokenType, status, 0L, 1L, "test@example.com", Role.USER,
+                UserStatus.ACTIVE).withExpiresAt(Instant.now().plusSeconds(600));
+    }
+
+    private void awaitWaiting(Thread[] thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread[0] == null || thread[0].getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "waiter did not join the running lookup");
+            Thread.sleep(5);
+        }
+    }
+
+    private Instant stubExpiry(String jwt, Duration remaining) {
+        // exp is stored in whole seconds
+        Date expiration = Date.from(Instant.now().plus(remaining).truncatedTo(ChronoUnit.SECONDS));
+        when(jwtService.parseAndVerify(jwt)).thenReturn(new JwtClaims(Jwts.claims().setExpiration(expiration)));
+        return expiration.toInstant();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,173 @@
+package tuyenbd.authentication.domain.auth.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import tuyenbd.authentication.domain.auth.entity.Token;
+import tuyenbd.authentication.domain.auth.enums.TokenType;
+import tuyenbd.authentication.domain.auth.model.TokenDigest;
+import tuyenbd.authentication.domain.auth.repository.TokenRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TokenWriteBehindServiceImplTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenWriteBehindServiceImpl writeBehindService;
+
+    private void createService(int maxBatchSize, int queueCapacity) {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehindService = new TokenWriteBehindServiceImpl(tokenRepository, transactionManager, meterRegistry,
+                true, maxBatchSize,
+                Duration.ofMillis(50), queueCapacity, Duration.ZERO, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehindService.destroy();
+    }
+
+    @Test
+    void write_ShouldInsertQueuedTokensInOneBatch() {
+        // Given
+        createService(10, 10);
+        Token access = token("access.token");
+        Token refresh = token("refresh.token");
+
+        // When
+        writeBehindService.write(access);
+        writeBehindService.write(refresh);
+        writeBehindService.start();
+
+        // Then
+        verify(tokenRepository, timeout(1000)).saveAll(List.of(access, refresh));
+        verify(tokenRepository, never()).save(any());
+    }
+
+    @Test
+    void findPending_ShouldReturnTokenUntilItIsWritten() {
+        // Given
+        createService(10, 10);
+        Token token = token("access.token");
+
+        // When
+        writeBehindService.write(token);
+
+        // Then
+        assertSame(token, writeBehindService.findPending(TokenDigest.of("access.token")).orElseThrow());
+        writeBehindService.flush();
+        assertTrue(writeBehindService.findPending(TokenDigest.of("access.token")).isEmpty());
+    }
+
+    @Test
+    void write_WhenQueueIsFull_ShouldInsertSynchronously() {
+        // Given
+        createService(10, 1);
+        Token queued = token("first.token");
+        Token overflow = token("second.token");
+
+        // When
+        writeBehindService.write(queued);
+        writeBehindService.write(overflow);
+
+        // Then
+        verify(tokenRepository).saveAll(List.of(overflow));
+        assertEquals(1.0, meterRegistry.get(TokenWriteBehindServiceImpl.FALLBACK_METRIC).counter().count());
+    }
+
+    @Test
+    void write_WhenQueueIsFullAfterCommit_ShouldInsertInNewTransaction() {
+        // Given
+        createService(10, 1);
+        TransactionStatus status = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        Token queued = token("first.token");
+        Token overflow = token("second.token");
+        writeBehindService.write(queued);
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writeBehindService.write(overflow);
+                }
+            });
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        verify(tokenRepository).saveAll(List.of(overflow));
+        verify(transactionManager).commit(status);
+    }
+
+    @Test
+    void flush_WhenBatchFails_ShouldRetryTokensOneByOne() {
+        // Given
+        createService(10, 10);
+        Token good = token("good.token");
+        Token bad = token("bad.token");
+        when(tokenRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(tokenRepository.save(bad)).thenThrow(new DataIntegrityViolationException("duplicate"));
+        writeBehindService.write(good);
+        writeBehindService.write(bad);
+
+        // When
+        writeBehindService.flush();
+
+        // Then
+        verify(tokenRepository).save(good);
+        assertEquals(1.0, meterRegistry.get(TokenWriteBehindServiceImpl.FAILED_METRIC).counter().count());
+    }
+
+    @Test
+    void destroy_ShouldWriteRemainingTokens() throws InterruptedException {
+        // Given
+        createService(10, 10);
+        Token token = token("access.token");
+        writeBehindService.write(token);
+
+        // When
+        writeBehindService.destroy();
+
+        // Then
+        verify(tokenRepository).saveAll(List.of(token));
+    }
+
+    private static Token token(String jwt) {
+        return Token.builder()
+                .token(jwt)
+                .tokenHash(TokenDigest.of(jwt))
+                .tokenType(TokenType.ACCESS)
+                .build();
+    }
+}
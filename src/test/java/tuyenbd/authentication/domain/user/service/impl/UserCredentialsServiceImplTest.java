@@ -0,0 +1,112 @@
+package tuyenbd.authentication.domain.user.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+import tuyenbd.authentication.domain.user.model.UserCredentials;
+import tuyenbd.authentication.domain.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCredentialsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCredentialsServiceImpl userCredentialsService;
+    private UserCredentials credentials;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCredentialsService = new UserCredentialsServiceImpl(userRepository, meterRegistry,
+                Duration.ofMinutes(1), 100);
+        credentials = new UserCredentials(1L, "test@example.com", "$2a$10$hash", Role.USER, UserStatus.ACTIVE, 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findByEmail_ShouldServeRepeatedLookupsFromCache() {
+        // Given
+        when(userRepository.findCredentialsByEmail("test@example.com")).thenReturn(Optional.of(credentials));
+
+        // When
+        userCredentialsService.findByEmail("test@example.com");
+        Optional<UserCredentials> result = userCredentialsService.findByEmail(" Test@Example.com");
+
+        // Then
+        assertEquals(Optional.of(credentials), result);
+        verify(userRepository, times(1)).findCredentialsByEmail("test@example.com");
+        assertEquals(1.0, lookups("database"));
+        assertEquals(1.0, lookups("cache"));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userCredentials")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void findByEmail_WithinRequest_ShouldUseRequestMemo() {
+        // Given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findCredentialsByEmail("test@example.com")).thenReturn(Optional.of(credentials));
+
+        // When
+        userCredentialsService.findByEmail("test@example.com");
+        userCredentialsService.findByEmail("test@example.com");
+
+        // Then
+        assertEquals(1.0, lookups("request"));
+        assertEquals(0.0, lookups("cache"));
+    }
+
+    @Test
+    void findByEmail_WithUnknownEmail_ShouldNotCacheMiss() {
+        // Given
+        when(userRepository.findCredentialsByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        // When
+        userCredentialsService.findByEmail("missing@example.com");
+        Optional<UserCredentials> result = userCredentialsService.findByEmail("missing@example.com");
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(userRepository, times(2)).findCredentialsByEmail("missing@example.com");
+    }
+
+    @Test
+    void evict_ShouldReloadOnNextLookup() {
+        // Given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findCredentialsByEmail("test@example.com")).thenReturn(Optional.of(credentials));
+        userCredentialsService.findByEmail("test@example.com");
+
+        // When
+        userCredentialsService.evict("TEST@example.com");
+        userCredentialsService.findByEmail("test@example.com");
+
+        // Then
+        verify(userRepository, times(2)).findCredentialsByEmail("test@example.com");
+    }
+
+    private double lookups(String tier) {
+        return meterRegistry.get("user.credentials.lookups").tag("tier", tier).counter().count();
+    }
+}
@@ -0,0 +1,76 @@
+package tuyenbd.authentication.domain.user.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserStatus;
+import tuyenbd.authentication.domain.user.model.UserCredentials;
+import tuyenbd.authentication.domain.user.repository.UserRepository;
+import tuyenbd.authentication.domain.user.service.UserCredentialsService;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCredentialsService userCredentialsService;
+
+    @InjectMocks
+    private UserDetailsServiceImpl userDetailsService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = User.builder().id(1L).email("test@example.com").password("$2a$10$old").build();
+    }
+
+    @Test
+    void loadUserByUsername_ShouldLoadCredentialsProjection() {
+        when(userCredentialsService.findByEmail("test@example.com")).thenReturn(Optional.of(
+                new UserCredentials(1L, "test@example.com", "$2a$10$old", Role.USER, UserStatus.ACTIVE, 3L)));
+
+        UserDetails result = userDetailsService.loadUserByUsername("test@example.com");
+
+        User user = assertInstanceOf(User.class, result);
+        assertEquals(1L, user.getId());
+        assertEquals("$2a$10$old", user.getPassword());
+        assertEquals(3L, user.getTokenEpoch());
+        assertTrue(user.isEnabled());
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void loadUserByUsername_WhenUserDoesNotExist_ShouldThrowException() {
+        when(userCredentialsService.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("missing@example.com"));
+    }
+
+    @Test
+    void updatePassword_ShouldSaveUpgradedHash() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        UserDetails result = userDetailsService.updatePassword(testUser, "{bcrypt}$2a$12$new");
+
+        assertEquals("{bcrypt}$2a$12$new", result.getPassword());
+        verify(userRepository).save(testUser);
+        verify(userCredentialsService).evict("test@example.com");
+    }
+}
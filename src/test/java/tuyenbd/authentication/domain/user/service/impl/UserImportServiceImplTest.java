@@ -0,0 +1,221 @@
+package tuyenbd.authentication.domain.user.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tuyenbd.authentication.controller.dto.RegisterRequest;
+import tuyenbd.authentication.controller.dto.UserImportResponse;
+import tuyenbd.authentication.controller.dto.UserImportRowResult;
+import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
+import tuyenbd.authentication.domain.user.enums.UserImportStatus;
+import tuyenbd.authentication.domain.user.model.UserImportRow;
+import tuyenbd.authentication.domain.user.repository.UserRepository;
+import tuyenbd.authentication.exception.PasswordHashingRejectedException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userImportService = new UserImportServiceImpl(userRepository, passwordEncoder,
+                new TransactionTemplate(transactionManager), entityManager, meterRegistry, 2, 2, 2, Duration.ofMillis(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.destroy();
+    }
+
+    @Test
+    void importUsers_ShouldReportEveryRowInInputOrder() {
+        // Given
+        when(userRepository.findExistingEmails(List.of("a@example.com")))
+                .thenReturn(Set.of());
+        when(userRepository.findExistingEmails(List.of("taken@example.com")))
+                .thenReturn(Set.of("taken@example.com"));
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        assignIdsOnSave();
+
+        // When
+        UserImportResponse response = userImportService.importUsers(List.of(
+                row(1, "A@example.com", "secret"),
+                row(2, "a@example.com", "secret"),
+                row(3, "taken@example.com", "secret"),
+                row(4, "not-an-email", "secret"),
+                UserImportRow.invalid(5, "Malformed JSON")
+        ).iterator());
+
+        // Then
+        assertEquals(1, response.getCreated());
+        assertEquals(2, response.getDuplicates());
+        assertEquals(2, response.getInvalid());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                response.getRows().stream().map(UserImportRowResult::getLine).toList());
+        UserImportRowResult created = response.getRows().get(0);
+        assertEquals(UserImportStatus.CREATED, created.getStatus());
+        assertEquals("a@example.com", created.getEmail());
+        assertNotNull(created.getId());
+        assertEquals(2.0, meterRegistry.get(UserImportServiceImpl.IMPORTED_METRIC)
+                .tag("status", "DUPLICATE").counter().count());
+        verify(entityManager, atLeastOnce()).clear();
+    }
+
+    @Test
+    void importUsers_ShouldInsertEachChunkWithOneSaveAll() {
+        // Given
+        when(userRepository.findExistingEmails(anyList())).thenReturn(Set.of());
+        when(passwordEncoder.encode(any())).thenReturn("hash");
+        assignIdsOnSave();
+
+        // When
+        UserImportResponse response = userImportService.importUsers(List.of(
+                row(1, "a@example.com", "one"),
+                row(2, "b@example.com", "two"),
+                row(3, "c@example.com", "three")
+        ).iterator());
+
+        // Then
+        assertEquals(3, response.getCreated());
+        verify(userRepository, times(2)).saveAll(anyList());
+        verify(userRepository, never()).save(any());
+        verify(passwordEncoder, times(3)).encode(any());
+    }
+
+    @Test
+    void importUsers_WhenBatchViolatesUniqueIndex_ShouldRetryRowByRow() {
+        // Given
+        when(userRepository.findExistingEmails(anyList())).thenReturn(Set.of());
+        when(passwordEncoder.encode(any())).thenReturn("hash");
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            if (user.getEmail().equals("b@example.com")) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            user.setId(1L);
+            return user;
+        });
+
+        // When
+        UserImportResponse response = userImportService.importUsers(List.of(
+                row(1, "a@example.com", "one"),
+                row(2, "b@example.com", "two")
+        ).iterator());
+
+        // Then
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getDuplicates());
+        assertEquals(UserImportStatus.DUPLICATE, response.getRows().get(1).getStatus());
+    }
+
+    @Test
+    void importUsers_WhenHashingStaysRejected_ShouldReportRowRejected() {
+        // Given
+        when(userRepository.findExistingEmails(anyList())).thenReturn(Set.of());
+        when(passwordEncoder.encode("one")).thenThrow(new PasswordHashingRejectedException("busy"));
+
+        // When
+        UserImportResponse response = userImportService.importUsers(
+                List.of(row(1, "a@example.com", "one")).iterator());
+
+        // Then
+        assertEquals(1, response.getRejected());
+        assertEquals(0, response.getFailed());
+        assertEquals(0, response.getInvalid());
+        assertEquals(UserImportStatus.REJECTED, response.getRows().get(0).getStatus());
+        assertEquals("busy", response.getRows().get(0).getMessage());
+        // the first attempt and both retries
+        verify(passwordEncoder, times(3)).encode("one");
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void importUsers_WhenHashingIsRejectedOnce_ShouldRetryAndCreateRow() {
+        // Given
+        when(userRepository.findExistingEmails(anyList())).thenReturn(Set.of());
+        when(passwordEncoder.encode("one"))
+                .thenThrow(new PasswordHashingRejectedException("busy"))
+                .thenReturn("hash");
+        assignIdsOnSave();
+
+        // When
+        UserImportResponse response = userImportService.importUsers(
+                List.of(row(1, "a@example.com", "one")).iterator());
+
+        // Then
+        assertEquals(1, response.getCreated());
+        assertEquals(0, response.getRejected());
+        assertEquals(UserImportStatus.CREATED, response.getRows().get(0).getStatus());
+        verify(passwordEncoder, times(2)).encode("one");
+        verify(userRepository).saveAll(argThat(users -> "hash".equals(users.iterator().next().getPassword())));
+    }
+
+    @Test
+    void importUsers_WhenHashingFails_ShouldMarkRowFailedWithoutRetry() {
+        // Given
+        when(userRepository.findExistingEmails(anyList())).thenReturn(Set.of());
+        when(passwordEncoder.encode("one")).thenThrow(new IllegalStateException("broken"));
+
+        // When
+        UserImportResponse response = userImportService.importUsers(
+                List.of(row(1, "a@example.com", "one")).iterator());
+
+        // Then
+        assertEquals(1, response.getFailed());
+        assertEquals(0, response.getRejected());
+        verify(passwordEncoder, times(1)).encode("one");
+    }
+
+    private void assignIdsOnSave() {
+        AtomicLong ids = new AtomicLong();
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(ids.incrementAndGet()));
+            return users;
+        });
+    }
+
+    private static UserImportRow row(long line, String email, String password) {
+        return UserImportRow.of(line, RegisterRequest.builder()
+                .email(email)
+                .password(password)
+                .role(Role.USER)
+                .build());
+    }
+}
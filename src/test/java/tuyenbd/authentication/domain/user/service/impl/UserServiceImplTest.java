@@ -6,24 +6,37 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import tuyenbd.authentication.config.CacheConfig;
 import tuyenbd.authentication.controller.dto.RegisterRequest;
+import tuyenbd.authentication.controller.dto.UserPage;
+import tuyenbd.authentication.controller.dto.UserSummary;
 import tuyenbd.authentication.controller.dto.UserUpdateRequest;
 import tuyenbd.authentication.domain.auth.service.TokenService;
 import tuyenbd.authentication.domain.user.entity.User;
+import tuyenbd.authentication.domain.user.enums.Role;
 import tuyenbd.authentication.domain.user.enums.UserStatus;
+import tuyenbd.authentication.domain.user.model.UserFilter;
 import tuyenbd.authentication.domain.user.repository.UserRepository;
+import tuyenbd.authentication.domain.user.service.UserCredentialsService;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +51,15 @@ class UserServiceImplTest {
     @Mock
     private TokenService tokenService;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private UserCredentialsService userCredentialsService;
+
+    @Mock
+    private Cache userIdCache;
+
     @Mock
     private Authentication authentication;
 
@@ -82,18 +104,48 @@ class UserServiceImplTest {
         assertNotNull(savedUser);
         assertEquals(testUser.getEmail(), savedUser.getEmail());
         verify(userRepository).save(testUser);
+        verify(userCredentialsService).evict(testUser.getEmail());
     }
 
     @Test
-    void getAllUsers_ShouldReturnListOfUsers() {
-        List<User> users = Arrays.asList(testUser);
-        when(userRepository.findAll()).thenReturn(users);
+    void getUsers_WhenMoreRowsExist_ShouldReturnNextCursor() {
+        ReflectionTestUtils.setField(userService, "defaultPageSize", 2);
+        when(userRepository.findSummariesAfter(eq(10L), eq(Role.USER), isNull(), isNull(), isNull(),
+                eq(PageRequest.ofSize(3))))
+                .thenReturn(List.of(summary(11L), summary(12L), summary(13L)));
 
-        List<User> result = userService.getAllUsers();
+        UserPage result = userService.getUsers(new UserFilter(Role.USER, null, null, null), 10L, null);
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testUser, result.get(0));
+        assertEquals(List.of(summary(11L), summary(12L)), result.getItems());
+        assertEquals(12L, result.getNextCursor());
+    }
+
+    @Test
+    void getUsers_OnLastPage_ShouldNotReturnCursor() {
+        ReflectionTestUtils.setField(userService, "maxPageSize", 5);
+        when(userRepository.findSummariesAfter(eq(0L), isNull(), isNull(), isNull(), isNull(),
+                eq(PageRequest.ofSize(6))))
+                .thenReturn(List.of(summary(1L)));
+
+        UserPage result = userService.getUsers(UserFilter.none(), null, 1000);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void exportUsers_ShouldPassEveryRowToSink() {
+        when(userRepository.streamSummaries(null, UserStatus.ACTIVE, null, null))
+                .thenReturn(Stream.of(summary(1L), summary(2L)));
+        List<UserSummary> exported = new ArrayList<>();
+
+        userService.exportUsers(new UserFilter(null, UserStatus.ACTIVE, null, null), exported::add);
+
+        assertEquals(List.of(summary(1L), summary(2L)), exported);
+    }
+
+    private static UserSummary summary(Long id) {
+        return UserSummary.builder().id(id).email("user" + id + "@example.com").build();
     }
 
     @Test
@@ -123,6 +175,7 @@ class UserServiceImplTest {
         assertNotNull(updatedUser);
         assertEquals(updateRequest.getFirstname(), updatedUser.getFirstname());
         assertEquals(updateRequest.getLastname(), updatedUser.getLastname());
+        verify(userCredentialsService).evict(testUser.getEmail());
     }
 
     @Test
@@ -135,18 +188,49 @@ class UserServiceImplTest {
         assertEquals(UserStatus.INACTIVE, testUser.getStatus());
         verify(tokenService).revokeAllUserTokens(testUser);
         verify(userRepository).save(testUser);
+        verify(userCredentialsService).evict(testUser.getEmail());
     }
 
     @Test
     void isCurrentUser_WhenUserMatches_ShouldReturnTrue() {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
+        when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(cacheManager.getCache(CacheConfig.USER_ID_CACHE)).thenReturn(userIdCache);
+        when(userRepository.findIdByEmail("test@example.com")).thenReturn(Optional.of(1L));
 
         boolean result = userService.isCurrentUser(1L);
 
         assertTrue(result);
+        verify(userIdCache).put("test@example.com", 1L);
+    }
+
+    @Test
+    void isCurrentUser_WithUserPrincipal_ShouldNotQueryRepository() {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(testUser);
+
+        assertTrue(userService.isCurrentUser(1L));
+        assertFalse(userService.isCurrentUser(2L));
+        verifyNoInteractions(userRepository, cacheManager);
+    }
+
+    @Test
+    void isCurrentUser_WithCachedUserId_ShouldNotQueryRepository() {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getName()).thenReturn("test@example.com");
+        when(cacheManager.getCache(CacheConfig.USER_ID_CACHE)).thenReturn(userIdCache);
+        when(userIdCache.get("test@example.com", Long.class)).thenReturn(2L);
+
+        boolean result = userService.isCurrentUser(1L);
+
+        assertFalse(result);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -169,16 +253,26 @@ class UserServiceImplTest {
 
     @Test
     void existsByEmail_WhenEmailExists_ShouldReturnTrue() {
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
 
         boolean result = userService.existsByEmail("test@example.com");
 
+        assertTrue(result);
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void existsByEmail_ShouldNormalizeEmail() {
+        when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
+
+        boolean result = userService.existsByEmail(" Test@Example.COM ");
+
         assertTrue(result);
     }
 
     @Test
     void existsByEmail_WhenEmailDoesNotExist_ShouldReturnFalse() {
-        when(userRepository.findByEmail("nonexistent@example.com")).thenReturn(Optional.empty());
+        when(userRepository.existsByEmail("nonexistent@example.com")).thenReturn(false);
 
         boolean result = userService.existsByEmail("nonexistent@example.com");
 
@@ -187,7 +281,7 @@ class UserServiceImplTest {
 
     @Test
     void createUser_WhenEmailNotTaken_ShouldCreateAndReturnUser() {
-        when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.empty());
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
         when(passwordEncoder.encode("password")).thenReturn("encoded_password");
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -202,7 +296,7 @@ class UserServiceImplTest {
 
     @Test
     void createUser_WhenEmailTaken_ShouldThrowException() {
-        when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class, () -> userService.createUser(registerRequest));
     }